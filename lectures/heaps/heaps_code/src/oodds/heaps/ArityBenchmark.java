@@ -0,0 +1,48 @@
+package oodds.heaps;
+
+import java.util.Random;
+
+/**
+ * Measures how the throughput of {@code add} and {@code extractMin}
+ * on a {@code BinaryHeap} changes with the arity of the heap.
+ * Usage: java oodds.heaps.ArityBenchmark [size]
+ */
+public class ArityBenchmark {
+    /** A heap element with a double priority that records its own position. */
+    static class Item {
+        double priority;
+        int position;
+        Item(double priority) { this.priority = priority; }
+    }
+
+    static class ItemOps implements HeapElemOps<Item, Double> {
+        public Double priority(Item elem) { return elem.priority; }
+        public int compare(Double p1, Double p2) { return Double.compare(p1, p2); }
+        public void setPriority(Item elem, Double priority) { elem.priority = priority; }
+        public int position(Item elem) { return elem.position; }
+        public void setPosition(Item elem, int pos) { elem.position = pos; }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Item[] items = new Item[n];
+        Random r = new Random(42);
+        for (int i = 0; i < n; i++) items[i] = new Item(r.nextDouble());
+
+        System.out.printf("%-6s %12s %12s%n", "arity", "add/ms", "extract/ms");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            for (int arity : new int[] {2, 4, 8}) {
+                BinaryHeap<Item, Double> h = new BinaryHeap<>(new ItemOps(), arity);
+                long t0 = System.nanoTime();
+                for (Item it : items) h.add(it);
+                long t1 = System.nanoTime();
+                while (!h.isEmpty()) h.extractMin();
+                long t2 = System.nanoTime();
+                if (round > 0) {
+                    System.out.printf("%-6d %12.0f %12.0f%n", arity,
+                            n / ((t1 - t0) / 1e6), n / ((t2 - t1) / 1e6));
+                }
+            }
+        }
+    }
+}
@@ -1,21 +1,169 @@
 package oodds.heaps;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 
+/**
+ * A heap-based priority queue. Despite the name, the heap may be d-ary:
+ * each node has {@code arity} children, which makes the tree shallower at
+ * the cost of more comparisons per level of bubbling down. The children
+ * of the node at index k are at indices arity*k+1 through arity*k+arity,
+ * so a family of siblings is read from consecutive slots of the array.
+ * The slots hold references, though: comparing the siblings still
+ * dereferences each element to find its priority.
+ * <p>
+ * If the system property {@code oodds.heaps.metrics} is true, each heap
+ * counts the work it does in a {@code HeapMetrics}. Since the flag is a
+ * static constant, the JIT compiler removes the counting code entirely
+ * when metrics are disabled.
+ */
 public class BinaryHeap<E, P> implements PriorityQueue<E, P> {
     HeapElemOps<E, P> ops;
     ArrayList<E> items;
+    /** The number of children of each node. */
+    final int arity;
+    /** Whether heaps collect metrics. */
+    static final boolean METRICS = Boolean.getBoolean("oodds.heaps.metrics");
+    /** The metrics for this heap, or null if METRICS is false. */
+    final HeapMetrics metrics = METRICS ? new HeapMetrics() : null;
 
     public BinaryHeap(HeapElemOps<E, P> ops) {
+        this(ops, 2);
+    }
+
+    /**
+     * Creates a heap in which each node has {@code arity} children.
+     * Requires: arity >= 2.
+     */
+    public BinaryHeap(HeapElemOps<E, P> ops, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be at least 2");
         this.ops = ops;
+        this.arity = arity;
+        items = new ArrayList<>();
+    }
+
+    /**
+     * Creates a binary heap containing the elements of {@code elems}.
+     * The heap is built bottom-up in O(n) time, and the position of each
+     * element is set exactly once.
+     */
+    public BinaryHeap(HeapElemOps<E, P> ops, Collection<? extends E> elems) {
+        this(ops);
+        addAll(elems);
+    }
+
+    /**
+     * Effect: Pushes all of {@code elems} onto the queue at their current
+     * priorities. If there are at least as many new elements as existing
+     * ones, the whole heap is rebuilt bottom-up in O(n) time and every
+     * position is set once at the end; otherwise the elements are added
+     * one at a time.
+     */
+    public void addAll(Collection<? extends E> elems) {
+        if (elems.size() < size()) {
+            for (E e : elems) add(e);
+            return;
+        }
+        items.addAll(elems);
+        int size = items.size();
+        if (size > 1) {
+            for (int k = parent(size - 1); k >= 0; k--) {
+                siftDown(k, null);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            ops.setPosition(items.get(i), i);
+        }
+        if (METRICS) metrics.positionUpdates += size;
+    }
+
+    /**
+     * Effect: Removes up to {@code max} elements of highest priority from
+     * the queue and adds them to {@code c} in priority order.
+     * <p>
+     * A small batch of k elements is extracted one at a time, with k sifts
+     * of O(log n) each; only the position updates of the elements left in
+     * the queue are batched, and made once at the end. A batch with
+     * k log n >= n elements is instead taken by walking the top of the
+     * heap with a frontier queue of candidate indices, which takes
+     * O(k log k) time, and the remaining elements are then re-heapified
+     * once, bottom-up, in O(n) time.
+     * Returns: the number of elements removed.
+     */
+    public int drainTo(Collection<? super E> c, int max) {
+        int n = Math.min(max, size());
+        if (n <= 0) return 0;
+        int size = items.size();
+        if ((long) n * (32 - Integer.numberOfLeadingZeros(size)) >= size) {
+            drainBatch(c, n);
+            return n;
+        }
+        BitSet moved = new BitSet();
+        for (int i = 0; i < n; i++) {
+            c.add(items.get(0));
+            E last = items.remove(items.size() - 1);
+            if (!items.isEmpty()) {
+                items.set(0, last);
+                moved.set(0);
+                int depth = siftDown(0, moved);
+                if (METRICS) metrics.recordDown(depth);
+            }
+        }
+        size = items.size();
+        for (int i = moved.nextSetBit(0); i >= 0 && i < size; i = moved.nextSetBit(i + 1)) {
+            ops.setPosition(items.get(i), i);
+            if (METRICS) metrics.positionUpdates++;
+        }
+        return n;
+    }
+
+    /**
+     * Effect: remove the n elements of highest priority and add them to c in
+     * priority order, then rebuild the heap from the rest. An element can
+     * only be among the best n once its parent has been taken, so the
+     * candidates are the children of the elements taken so far.
+     * Requires: 0 < n <= size().
+     */
+    private void drainBatch(Collection<? super E> c, int n) {
+        int size = items.size();
+        java.util.PriorityQueue<Integer> frontier = new java.util.PriorityQueue<>(
+                (i, j) -> compare(ops.priority(items.get(i)), ops.priority(items.get(j))));
+        BitSet taken = new BitSet(size);
+        frontier.add(0);
+        for (int t = 0; t < n; t++) {
+            int k = frontier.remove();
+            c.add(items.get(k));
+            taken.set(k);
+            int first = firstChild(k);
+            for (int i = first; i < Math.min(first + arity, size); i++) frontier.add(i);
+        }
+        ArrayList<E> rest = new ArrayList<>(size - n);
+        for (int i = taken.nextClearBit(0); i < size; i = taken.nextClearBit(i + 1)) {
+            rest.add(items.get(i));
+        }
+        items.clear();
+        addAll(rest);
     }
 
     @Override
     public void add(E item) {
         items.add(item);
+        ops.setPosition(item, items.size() - 1);
+        if (METRICS) metrics.positionUpdates++;
         bubbleUp(items.size() - 1);
     }
 
+    /** The index of the first child of the node at index k. */
+    private int firstChild(int k) {
+        return arity * k + 1;
+    }
+
+    /** The index of the parent of the node at index k. Requires: k > 0. */
+    private int parent(int k) {
+        return (k - 1) / arity;
+    }
+
     /**
      * Swap items at index i and j in the heap array, and also
      * update their positions.
@@ -28,52 +176,130 @@ public class BinaryHeap<E, P> implements PriorityQueue<E, P> {
         items.set(j, temp);
         ops.setPosition(items.get(i), i);
         ops.setPosition(items.get(j), j);
+        if (METRICS) {
+            metrics.swaps++;
+            metrics.positionUpdates += 2;
+        }
     }
 
     @Override
     public E extractMin() {
         E result = items.get(0);
-        items.set(0, items.remove(items.size() - 1));
+        E last = items.remove(items.size() - 1);
+        if (!items.isEmpty()) {
+            items.set(0, last);
+            ops.setPosition(last, 0);
+            if (METRICS) metrics.positionUpdates++;
+            bubbleDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Effect: Removes the element of highest priority and pushes
+     *         {@code item} in its place, sifting it down once. Cheaper
+     *         than extractMin followed by add, which sift twice.
+     * Returns: the element removed.
+     * Requires: Queue is nonempty.
+     */
+    public E replaceMin(E item) {
+        E result = items.get(0);
+        items.set(0, item);
+        ops.setPosition(item, 0);
+        if (METRICS) metrics.positionUpdates++;
         bubbleDown(0);
         return result;
     }
 
+    /**
+     * Returns: the element of highest priority, without removing it.
+     * Requires: Queue is nonempty.
+     */
+    public E peek() {
+        return items.get(0);
+    }
+
     /** Whether the item i has no higher priority than item j.
      * Requires: i, j are legal item positions.
      */
     private boolean comparePriorities(int i, int j) {
-        P pi = ops.priority(items.get(i));
-        P pj = ops.priority(items.get(j));
-        return (ops.compare(pi, pj) >= 0);
+        return compare(ops.priority(items.get(i)), ops.priority(items.get(j))) >= 0;
+    }
+
+    /** Compare two priorities, counting the comparison in the metrics. */
+    private int compare(P p1, P p2) {
+        if (METRICS) metrics.compares++;
+        return ops.compare(p1, p2);
     }
 
     /** Bubble down item k */
     private void bubbleDown(int k) {
         int size = items.size();
         if (k < 0 || k >= size) return;
-        while (2 * k + 1 < size) {
-            int c = 2 * k + 1;
-            if (c + 1 < size && !comparePriorities(c+1, c)) {
-                c++;
+        int depth = 0;
+        while (firstChild(k) < size) {
+            int first = firstChild(k);
+            int end = Math.min(first + arity, size);
+            int c = first;
+            for (int i = first + 1; i < end; i++) {
+                if (!comparePriorities(i, c)) c = i;
             }
-            if (comparePriorities(c, k)) return;
+            if (comparePriorities(c, k)) break;
             swap(k, c);
             k = c;
+            depth++;
         }
+        if (METRICS) metrics.recordDown(depth);
+    }
+
+    /**
+     * Bubble down item k like bubbleDown, but without updating positions.
+     * If {@code moved} is non-null, the index of every item moved is
+     * recorded in it.
+     * Returns: the number of levels the item moved.
+     */
+    private int siftDown(int k, BitSet moved) {
+        int size = items.size();
+        int depth = 0;
+        while (firstChild(k) < size) {
+            int first = firstChild(k);
+            int end = Math.min(first + arity, size);
+            int c = first;
+            for (int i = first + 1; i < end; i++) {
+                if (!comparePriorities(i, c)) c = i;
+            }
+            if (comparePriorities(c, k)) break;
+            E temp = items.get(k);
+            items.set(k, items.get(c));
+            items.set(c, temp);
+            if (moved != null) {
+                moved.set(k);
+                moved.set(c);
+            }
+            if (METRICS) metrics.swaps++;
+            k = c;
+            depth++;
+        }
+        return depth;
     }
 
     /** Bubble up item k */
     private void bubbleUp(int k) {
+        int depth = 0;
         while (k > 0) {
-            int parent = (k-1)/2;
-            if (comparePriorities(k, parent)) return;
+            int parent = parent(k);
+            if (comparePriorities(k, parent)) break;
             swap(k, parent);
             k = parent;
+            depth++;
         }
+        if (METRICS) metrics.recordUp(depth);
     }
 
     @Override
     public void increasePriority(E item, P priority) {
+        if (compare(priority, ops.priority(item)) > 0) return;
+        ops.setPriority(item, priority);
         int index = ops.position(item);
         bubbleUp(index);
     }
@@ -86,4 +312,9 @@ public class BinaryHeap<E, P> implements PriorityQueue<E, P> {
     public int size() {
         return items.size();
     }
+
+    /** Returns: the metrics for this heap, or null if metrics are disabled. */
+    public HeapMetrics metrics() {
+        return metrics;
+    }
 }
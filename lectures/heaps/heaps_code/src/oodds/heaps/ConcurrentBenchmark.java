@@ -0,0 +1,76 @@
+package oodds.heaps;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the throughput of a {@code MultiQueue} with that of a
+ * {@code BinaryHeap} protected by a single lock, as the number of threads
+ * grows. Each thread repeatedly adds an element and then extracts one.
+ * Usage: java oodds.heaps.ConcurrentBenchmark [max threads] [ops per thread]
+ */
+public class ConcurrentBenchmark {
+    /** A heap element with a double priority that records its own position. */
+    static class Item {
+        double priority;
+        int position;
+        Item(double priority) { this.priority = priority; }
+    }
+
+    static class ItemOps implements HeapElemOps<Item, Double> {
+        public Double priority(Item elem) { return elem.priority; }
+        public int compare(Double p1, Double p2) { return Double.compare(p1, p2); }
+        public void setPriority(Item elem, Double priority) { elem.priority = priority; }
+        public int position(Item elem) { return elem.position; }
+        public void setPosition(Item elem, int pos) { elem.position = pos; }
+    }
+
+    /** A BinaryHeap in which every operation holds the heap's lock. */
+    static class SynchronizedHeap<E, P> implements PriorityQueue<E, P> {
+        final BinaryHeap<E, P> heap;
+        SynchronizedHeap(HeapElemOps<E, P> ops) { heap = new BinaryHeap<>(ops); }
+
+        public synchronized void add(E elem) { heap.add(elem); }
+        public synchronized E extractMin() { return heap.isEmpty() ? null : heap.extractMin(); }
+        public synchronized void increasePriority(E elem, P priority) {
+            heap.increasePriority(elem, priority);
+        }
+        public synchronized boolean isEmpty() { return heap.isEmpty(); }
+    }
+
+    /** Returns: the throughput of q in operations per millisecond. */
+    static double run(PriorityQueue<Item, Double> q, int threads, int opsPerThread)
+            throws InterruptedException {
+        for (int i = 0; i < 100_000; i++) q.add(new Item(ThreadLocalRandom.current().nextDouble()));
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    q.add(new Item(rnd.nextDouble()));
+                    q.extractMin();
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        long t1 = System.nanoTime();
+        return 2.0 * threads * opsPerThread / ((t1 - t0) / 1e6);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        System.out.printf("%-8s %16s %16s%n", "threads", "locked ops/ms", "multiqueue ops/ms");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double locked = run(new SynchronizedHeap<>(new ItemOps()), threads, ops);
+                double multi = run(new MultiQueue<>(new ItemOps(), 2 * threads), threads, ops);
+                if (round > 0) {
+                    System.out.printf("%-8d %16.0f %16.0f%n", threads, locked, multi);
+                }
+            }
+        }
+    }
+}
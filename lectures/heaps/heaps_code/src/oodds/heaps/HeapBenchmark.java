@@ -0,0 +1,338 @@
+package oodds.heaps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * A benchmark harness for the priority queues in this package. Every
+ * variant is run on every workload, at every size, for every key
+ * distribution, and the results are written as JSON so they can be
+ * compared over time. To benchmark a new heap, add a factory for it to
+ * {@code VARIANTS}.
+ * <p>
+ * Usage: java oodds.heaps.HeapBenchmark [-sizes 1000,1000000] [-out results.json]
+ */
+public class HeapBenchmark {
+    /** A heap element with a long priority and an id that serves as its payload. */
+    static class Elem {
+        final int id;
+        long priority;
+        int position;
+        Elem(int id, long priority) {
+            this.id = id;
+            this.priority = priority;
+        }
+    }
+
+    static class ElemOps implements HeapElemOps<Elem, Long> {
+        public Long priority(Elem elem) { return elem.priority; }
+        public int compare(Long p1, Long p2) { return Long.compare(p1, p2); }
+        public void setPriority(Elem elem, Long priority) { elem.priority = priority; }
+        public int position(Elem elem) { return elem.position; }
+        public void setPosition(Elem elem, int pos) { elem.position = pos; }
+    }
+
+    /** A priority queue implementation to benchmark. */
+    static class Variant {
+        final String name;
+        /** Whether the queue requires priorities to be added in monotone order. */
+        final boolean monotone;
+        /** Creates a queue that can hold the given elements. */
+        final Function<Elem[], PriorityQueue<Elem, Long>> factory;
+
+        Variant(String name, boolean monotone, Function<Elem[], PriorityQueue<Elem, Long>> factory) {
+            this.name = name;
+            this.monotone = monotone;
+            this.factory = factory;
+        }
+    }
+
+    static final List<Variant> VARIANTS = List.of(
+        new Variant("binary", false, elems -> new BinaryHeap<>(new ElemOps())),
+        new Variant("4-ary", false, elems -> new BinaryHeap<>(new ElemOps(), 4)),
+        new Variant("8-ary", false, elems -> new BinaryHeap<>(new ElemOps(), 8)),
+        new Variant("pairing", false, elems -> new PairingHeap<>(new ElemOps())),
+        new Variant("leftist", false, elems -> new LeftistHeap<>(new ElemOps())),
+        new Variant("radix", true, elems -> new RadixHeap<>(new ElemOps())),
+        new Variant("multiqueue-1", false, elems -> new MultiQueue<>(new ElemOps(), 1)),
+        new Variant("mapped", false, HeapBenchmark::mappedHeap)
+    );
+
+    static final String[] DISTRIBUTIONS = {"random", "sorted", "reversed", "dijkstra"};
+    static final String[] WORKLOADS = {"add", "extractMin", "increasePriority", "mixed"};
+
+    /** Temporary files created for mapped heaps. */
+    static List<Path> tempFiles = new ArrayList<>();
+
+    static PriorityQueue<Elem, Long> mappedHeap(Elem[] elems) {
+        try {
+            Path f = Files.createTempFile("heapbench", ".heap");
+            f.toFile().deleteOnExit();
+            tempFiles.add(f);
+            return new MappedHeap<>(f, new ElemOps(), new MappedHeap.Serializer<Elem>() {
+                public long encode(Elem e) { return e.id; }
+                public Elem decode(long payload) { return elems[(int) payload]; }
+            }, 16, (payload, k) -> elems[(int) payload].position = k);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Returns: n elements with priorities drawn from the distribution. */
+    static Elem[] elements(String dist, int n, Random r) {
+        Elem[] elems = new Elem[n];
+        for (int i = 0; i < n; i++) {
+            long p;
+            switch (dist) {
+                case "sorted": p = i; break;
+                case "reversed": p = n - i; break;
+                default: p = r.nextInt(Integer.MAX_VALUE); break;
+            }
+            elems[i] = new Elem(i, p);
+        }
+        return elems;
+    }
+
+    /**
+     * Run a workload once on a fresh queue.
+     * Returns: the elapsed time in nanoseconds and the number of operations.
+     */
+    static long[] run(Variant v, String workload, String dist, int n, long seed) {
+        Random r = new Random(seed);
+        if (dist.equals("dijkstra")) return dijkstra(v, workload, n, r);
+        Elem[] elems = elements(dist, n, r);
+        PriorityQueue<Elem, Long> q = v.factory.apply(elems);
+        long ops = n;
+        long t0 = System.nanoTime();
+        switch (workload) {
+            case "add":
+                for (Elem e : elems) q.add(e);
+                break;
+            case "extractMin":
+                for (Elem e : elems) q.add(e);
+                t0 = System.nanoTime();
+                while (!q.isEmpty()) q.extractMin();
+                break;
+            case "increasePriority":
+                for (Elem e : elems) q.add(e);
+                t0 = System.nanoTime();
+                for (Elem e : elems) q.increasePriority(e, e.priority / 2);
+                break;
+            case "mixed": {
+                // starts half full, then a random mix of the three operations
+                int added = n / 2;
+                boolean[] extracted = new boolean[n];
+                for (int i = 0; i < added; i++) q.add(elems[i]);
+                t0 = System.nanoTime();
+                ops = 0;
+                while (added < n) {
+                    int k = r.nextInt(4);
+                    if (k < 2) {
+                        q.add(elems[added++]);
+                    } else if (k == 2 && !q.isEmpty()) {
+                        extracted[q.extractMin().id] = true;
+                    } else {
+                        Elem e = elems[r.nextInt(added)];
+                        if (!extracted[e.id]) q.increasePriority(e, e.priority - e.priority / 8);
+                    }
+                    ops++;
+                }
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - t0;
+        close(q);
+        return new long[] {elapsed, ops};
+    }
+
+    /** Effect: release any resources held by q. */
+    static void close(PriorityQueue<Elem, Long> q) {
+        if (q instanceof Closeable) {
+            try {
+                ((Closeable) q).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Run a Dijkstra workload on a random graph with n vertices and average
+     * degree 4. The "mixed" workload times the whole graph search using the
+     * queue. The other workloads first record the operations of a search,
+     * then replay its adds, its priority increases and finally the
+     * extractions as three phases on a fresh queue, timing the phase of
+     * the workload; this uses the keys of a real Dijkstra run without
+     * reading the clock around every operation.
+     */
+    static long[] dijkstra(Variant v, String workload, int n, Random r) {
+        Graph g = new Graph(n, r);
+        if (workload.equals("mixed")) {
+            Elem[] elems = unreached(n);
+            PriorityQueue<Elem, Long> q = v.factory.apply(elems);
+            long t0 = System.nanoTime();
+            long ops = g.search(q, elems, null);
+            long elapsed = System.nanoTime() - t0;
+            close(q);
+            return new long[] {elapsed, ops};
+        }
+        Trace trace = new Trace(n, g.targets.length);
+        g.search(new BinaryHeap<>(new ElemOps()), unreached(n), trace);
+        Elem[] elems = unreached(n);
+        PriorityQueue<Elem, Long> q = v.factory.apply(elems);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < trace.adds; i++) {
+            Elem e = elems[trace.addIds[i]];
+            e.priority = trace.addKeys[i];
+            q.add(e);
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < trace.increases; i++) {
+            q.increasePriority(elems[trace.increaseIds[i]], trace.increaseKeys[i]);
+        }
+        long t2 = System.nanoTime();
+        while (!q.isEmpty()) q.extractMin();
+        long t3 = System.nanoTime();
+        close(q);
+        switch (workload) {
+            case "add": return new long[] {t1 - t0, trace.adds};
+            case "extractMin": return new long[] {t3 - t2, trace.adds};
+            default: return new long[] {t2 - t1, trace.increases};
+        }
+    }
+
+    /** Returns: n elements with ids 0..n-1 and infinite distance. */
+    static Elem[] unreached(int n) {
+        Elem[] elems = new Elem[n];
+        for (int i = 0; i < n; i++) elems[i] = new Elem(i, Long.MAX_VALUE);
+        return elems;
+    }
+
+    /** A random directed graph in which every vertex has the same out-degree. */
+    static class Graph {
+        static final int DEGREE = 4;
+        /** The edges out of vertex u are j = u*DEGREE .. u*DEGREE+DEGREE-1,
+         *  going to targets[j] with weight weights[j]. */
+        final int[] targets, weights;
+
+        Graph(int n, Random r) {
+            targets = new int[n * DEGREE];
+            weights = new int[n * DEGREE];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = r.nextInt(n);
+                weights[i] = 1 + r.nextInt(1000);
+            }
+        }
+
+        /**
+         * Effect: run Dijkstra's algorithm from vertex 0 using the empty queue
+         * q, setting the priority of each element to its distance. If trace
+         * is not null, record the adds and priority increases in it.
+         * Returns: the number of queue operations.
+         */
+        long search(PriorityQueue<Elem, Long> q, Elem[] elems, Trace trace) {
+            boolean[] added = new boolean[elems.length];
+            boolean[] done = new boolean[elems.length];
+            long ops = 1;
+            elems[0].priority = 0;
+            q.add(elems[0]);
+            added[0] = true;
+            if (trace != null) trace.add(0, 0);
+            while (!q.isEmpty()) {
+                Elem u = q.extractMin();
+                ops++;
+                done[u.id] = true;
+                for (int j = u.id * DEGREE; j < (u.id + 1) * DEGREE; j++) {
+                    Elem w = elems[targets[j]];
+                    long d = u.priority + weights[j];
+                    if (done[w.id] || d >= w.priority) continue;
+                    if (added[w.id]) {
+                        q.increasePriority(w, d);
+                        if (trace != null) trace.increase(w.id, d);
+                    } else {
+                        w.priority = d;
+                        q.add(w);
+                        added[w.id] = true;
+                        if (trace != null) trace.add(w.id, d);
+                    }
+                    ops++;
+                }
+            }
+            return ops;
+        }
+    }
+
+    /** The adds and priority increases of a Dijkstra search, in order. */
+    static class Trace {
+        final int[] addIds, increaseIds;
+        final long[] addKeys, increaseKeys;
+        int adds, increases;
+
+        Trace(int vertices, int edges) {
+            addIds = new int[vertices];
+            addKeys = new long[vertices];
+            increaseIds = new int[edges];
+            increaseKeys = new long[edges];
+        }
+
+        void add(int id, long key) {
+            addIds[adds] = id;
+            addKeys[adds++] = key;
+        }
+
+        void increase(int id, long key) {
+            increaseIds[increases] = id;
+            increaseKeys[increases++] = key;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {1_000, 10_000, 100_000, 1_000_000, 10_000_000};
+        PrintStream out = System.out;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-sizes")) {
+                sizes = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (args[i].equals("-out")) {
+                out = new PrintStream(args[i + 1]);
+            }
+        }
+        int warmups = 2, trials = 3;
+        out.println("[");
+        boolean first = true;
+        for (Variant v : VARIANTS) {
+            for (String workload : WORKLOADS) {
+                for (String dist : DISTRIBUTIONS) {
+                    if (v.monotone && workload.equals("mixed") && !dist.equals("dijkstra")) continue;
+                    for (int n : sizes) {
+                        double[] nsPerOp = new double[trials];
+                        for (int t = -warmups; t < trials; t++) {
+                            long[] result = run(v, workload, dist, n, t + warmups);
+                            if (t >= 0) nsPerOp[t] = (double) result[0] / Math.max(1, result[1]);
+                            for (Path f : tempFiles) Files.deleteIfExists(f);
+                            tempFiles.clear();
+                        }
+                        Arrays.sort(nsPerOp);
+                        if (!first) out.println(",");
+                        first = false;
+                        out.printf("  {\"variant\": \"%s\", \"workload\": \"%s\", \"distribution\": \"%s\","
+                                + " \"size\": %d, \"nsPerOp\": %.2f}",
+                                v.name, workload, dist, n, nsPerOp[trials / 2]);
+                        out.flush();
+                    }
+                }
+            }
+        }
+        out.println();
+        out.println("]");
+        out.close();
+    }
+}
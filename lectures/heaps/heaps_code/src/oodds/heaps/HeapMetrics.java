@@ -0,0 +1,104 @@
+package oodds.heaps;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing the work done by a heap: comparisons, swaps,
+ * position updates, and how far each bubble-up and bubble-down moved.
+ * Like the heap itself, a HeapMetrics is not thread-safe.
+ */
+public class HeapMetrics implements HeapMetricsMXBean {
+    /** The largest depth recorded separately; deeper operations are counted as this depth. */
+    static final int MAX_DEPTH = 63;
+
+    long compares;
+    long swaps;
+    long positionUpdates;
+    long[] upDepths = new long[MAX_DEPTH + 1];
+    long[] downDepths = new long[MAX_DEPTH + 1];
+
+    /** An immutable copy of the counters at some point in time. */
+    public static class Snapshot {
+        public final long compares;
+        public final long swaps;
+        public final long positionUpdates;
+        private final long[] upDepths;
+        private final long[] downDepths;
+
+        Snapshot(HeapMetrics m) {
+            compares = m.compares;
+            swaps = m.swaps;
+            positionUpdates = m.positionUpdates;
+            upDepths = m.upDepths.clone();
+            downDepths = m.downDepths.clone();
+        }
+
+        /** The number of bubble-up operations that moved {@code depth} levels. */
+        public long bubbleUps(int depth) {
+            return upDepths[Math.min(depth, MAX_DEPTH)];
+        }
+
+        /** The number of bubble-down operations that moved {@code depth} levels. */
+        public long bubbleDowns(int depth) {
+            return downDepths[Math.min(depth, MAX_DEPTH)];
+        }
+
+        @Override
+        public String toString() {
+            return "compares=" + compares + " swaps=" + swaps
+                    + " positionUpdates=" + positionUpdates;
+        }
+    }
+
+    /** Returns: a copy of the current counters. */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Effect: register these metrics with the platform MBean server under
+     * the name {@code oodds.heaps:type=HeapMetrics,name=<name>}.
+     * Throws: IllegalStateException if registration fails, for example
+     * because the name is already in use.
+     */
+    public void register(String name) {
+        try {
+            ObjectName on = new ObjectName("oodds.heaps:type=HeapMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void recordUp(int depth) {
+        upDepths[Math.min(depth, MAX_DEPTH)]++;
+    }
+
+    void recordDown(int depth) {
+        downDepths[Math.min(depth, MAX_DEPTH)]++;
+    }
+
+    @Override
+    public long getCompares() { return compares; }
+
+    @Override
+    public long getSwaps() { return swaps; }
+
+    @Override
+    public long getPositionUpdates() { return positionUpdates; }
+
+    @Override
+    public long[] getBubbleUpDepths() { return upDepths.clone(); }
+
+    @Override
+    public long[] getBubbleDownDepths() { return downDepths.clone(); }
+
+    @Override
+    public void reset() {
+        compares = swaps = positionUpdates = 0;
+        upDepths = new long[MAX_DEPTH + 1];
+        downDepths = new long[MAX_DEPTH + 1];
+    }
+}
@@ -0,0 +1,22 @@
+package oodds.heaps;
+
+/** The management interface through which heap metrics are exposed via JMX. */
+public interface HeapMetricsMXBean {
+    /** The number of priority comparisons. */
+    long getCompares();
+
+    /** The number of swaps of heap elements. */
+    long getSwaps();
+
+    /** The number of calls to {@code HeapElemOps.setPosition}. */
+    long getPositionUpdates();
+
+    /** Element d is the number of bubble-up operations that moved d levels. */
+    long[] getBubbleUpDepths();
+
+    /** Element d is the number of bubble-down operations that moved d levels. */
+    long[] getBubbleDownDepths();
+
+    /** Effect: set all counters to zero. */
+    void reset();
+}
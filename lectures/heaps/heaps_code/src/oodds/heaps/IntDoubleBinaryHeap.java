@@ -0,0 +1,146 @@
+package oodds.heaps;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int elements with double priorities, specialized
+ * for graph algorithms like Dijkstra's where the elements are vertex numbers
+ * in the range 0..capacity-1. It provides the same operations as
+ * {@code PriorityQueue}, but stores elements and priorities in parallel
+ * primitive arrays and tracks element positions in an internal index, so no
+ * boxing or {@code HeapElemOps} callbacks are needed.
+ */
+public class IntDoubleBinaryHeap {
+    /** The heap array of elements. */
+    int[] elems;
+    /** prios[i] is the priority of elems[i]. */
+    double[] prios;
+    /** position[v] is the index of element v in elems, or -1 if absent. */
+    int[] position;
+    /** The number of elements in the heap. */
+    int size;
+
+    /**
+     * Creates an empty heap that can hold elements in the range
+     * 0..capacity-1.
+     */
+    public IntDoubleBinaryHeap(int capacity) {
+        elems = new int[capacity];
+        prios = new double[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Effect: Pushes {@code elem} onto the queue with priority {@code priority}.
+     * Requires: 0 <= elem < capacity, and {@code elem} is not already in the queue.
+     */
+    public void add(int elem, double priority) {
+        int k = size++;
+        elems[k] = elem;
+        prios[k] = priority;
+        position[elem] = k;
+        bubbleUp(k);
+    }
+
+    /**
+     * Effect: Removes and returns the element from the queue of
+     *         highest priority.
+     * Requires: Queue is nonempty.
+     */
+    public int extractMin() {
+        int result = elems[0];
+        position[result] = -1;
+        size--;
+        if (size > 0) {
+            elems[0] = elems[size];
+            prios[0] = prios[size];
+            position[elems[0]] = 0;
+            bubbleDown(0);
+        }
+        return result;
+    }
+
+    /** Returns: the priority of the element that extractMin() would return.
+     * Requires: Queue is nonempty.
+     */
+    public double minPriority() {
+        return prios[0];
+    }
+
+    /**
+     * Effect: change the priority of {@code elem} to the new priority.
+     * Has no effect if {@code priority} is lower than
+     * {@code elem}'s current priority.
+     * Requires: {@code elem} is already in the queue.
+     */
+    public void increasePriority(int elem, double priority) {
+        int k = position[elem];
+        if (priority >= prios[k]) return;
+        prios[k] = priority;
+        bubbleUp(k);
+    }
+
+    /** Returns: whether {@code elem} is in the queue. */
+    public boolean contains(int elem) {
+        return position[elem] >= 0;
+    }
+
+    /** Returns: whether the queue is empty. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bubble down item k. Rather than swapping at each level, the item is
+     * held aside and children are moved up into the hole until the item's
+     * final position is found.
+     */
+    private void bubbleDown(int k) {
+        int e = elems[k];
+        double p = prios[k];
+        int half = size / 2;
+        while (k < half) {
+            int c = 2 * k + 1;
+            if (c + 1 < size && prios[c + 1] < prios[c]) {
+                c++;
+            }
+            if (p <= prios[c]) break;
+            move(c, k);
+            k = c;
+        }
+        place(e, p, k);
+    }
+
+    /** Bubble up item k, moving parents down into the hole. */
+    private void bubbleUp(int k) {
+        int e = elems[k];
+        double p = prios[k];
+        while (k > 0) {
+            int parent = (k - 1) / 2;
+            if (p >= prios[parent]) break;
+            move(parent, k);
+            k = parent;
+        }
+        place(e, p, k);
+    }
+
+    /** Effect: move the item at index from to index to. */
+    private void move(int from, int to) {
+        int e = elems[from];
+        elems[to] = e;
+        prios[to] = prios[from];
+        position[e] = to;
+    }
+
+    /** Effect: store element e with priority p at index k. */
+    private void place(int e, double p, int k) {
+        elems[k] = e;
+        prios[k] = p;
+        position[e] = k;
+    }
+}
@@ -0,0 +1,273 @@
+package oodds.heaps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * A leftist heap: a meldable priority queue. Like a pairing heap, it is a
+ * tree of arbitrary shape satisfying the heap invariant. In addition, it
+ * satisfies the leftist invariant: the rank of every node (the length of the
+ * rightmost path from it to a missing child) is no greater for its right
+ * child than for its left child. So the rightmost path has length O(log n),
+ * and two heaps can be melded in O(log n) time by merging their rightmost
+ * paths.
+ * <p>
+ * The position that {@code HeapElemOps} records for each element is a handle
+ * into a table of nodes. Heaps that will be melded should share a table, by
+ * creating them with the {@code LeftistHeap(LeftistHeap)} constructor; then
+ * handles stay valid when elements move from one heap to another.
+ */
+public class LeftistHeap<E, P> implements PriorityQueue<E, P> {
+    HeapElemOps<E, P> ops;
+    Handles<E> handles;
+    Node<E> root;
+    int size;
+
+    static class Node<E> {
+        E elem;
+        int handle;
+        /** The length of the rightmost path from this node to a missing child. */
+        int rank = 1;
+        /** The size of the subtree rooted here; only set and used by split(). */
+        int count;
+        Node<E> left, right, parent;
+        Node(E elem) { this.elem = elem; }
+    }
+
+    /** A table mapping handles to nodes, possibly shared by several heaps. */
+    static class Handles<E> {
+        ArrayList<Node<E>> nodes = new ArrayList<>();
+        ArrayList<Integer> free = new ArrayList<>();
+
+        /** Effect: assign a handle to n. Returns: the handle. */
+        int allocate(Node<E> n) {
+            int h;
+            if (free.isEmpty()) {
+                h = nodes.size();
+                nodes.add(n);
+            } else {
+                h = free.remove(free.size() - 1);
+                nodes.set(h, n);
+            }
+            n.handle = h;
+            return h;
+        }
+
+        void release(int h) {
+            nodes.set(h, null);
+            free.add(h);
+        }
+    }
+
+    public LeftistHeap(HeapElemOps<E, P> ops) {
+        this.ops = ops;
+        handles = new Handles<>();
+    }
+
+    /**
+     * Creates an empty heap that shares its element operations and handle
+     * table with {@code family}, so that the two heaps can be melded in
+     * O(log n) time.
+     */
+    public LeftistHeap(LeftistHeap<E, P> family) {
+        ops = family.ops;
+        handles = family.handles;
+    }
+
+    @Override
+    public void add(E elem) {
+        Node<E> n = new Node<>(elem);
+        ops.setPosition(elem, handles.allocate(n));
+        root = meld(root, n);
+        size++;
+    }
+
+    @Override
+    public E extractMin() {
+        Node<E> r = root;
+        handles.release(r.handle);
+        if (r.left != null) r.left.parent = null;
+        if (r.right != null) r.right.parent = null;
+        root = meld(r.left, r.right);
+        size--;
+        return r.elem;
+    }
+
+    /**
+     * Effect: change the priority of {@code elem} to the new priority.
+     * Has no effect if {@code priority} is lower than
+     * {@code elem}'s current priority. The element's subtree is cut out
+     * and melded with the root.
+     */
+    @Override
+    public void increasePriority(E elem, P priority) {
+        if (ops.compare(priority, ops.priority(elem)) > 0) return;
+        ops.setPriority(elem, priority);
+        Node<E> n = handles.nodes.get(ops.position(elem));
+        if (n == root) return;
+        Node<E> p = n.parent;
+        if (p.left == n) {
+            p.left = null;
+        } else {
+            p.right = null;
+        }
+        n.parent = null;
+        fixRanks(p);
+        root = meld(root, n);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Effect: move all elements of {@code other} into this heap, leaving
+     * {@code other} empty. Takes O(log n) time if the heaps share a handle
+     * table; otherwise, the elements of {@code other} are first given
+     * handles in this heap's table, which takes time proportional to their
+     * number.
+     */
+    public void meld(LeftistHeap<E, P> other) {
+        if (other == this || other.root == null) return;
+        if (other.handles != handles) {
+            ArrayDeque<Node<E>> todo = new ArrayDeque<>();
+            todo.push(other.root);
+            while (!todo.isEmpty()) {
+                Node<E> n = todo.pop();
+                other.handles.release(n.handle);
+                ops.setPosition(n.elem, handles.allocate(n));
+                if (n.left != null) todo.push(n.left);
+                if (n.right != null) todo.push(n.right);
+            }
+        }
+        root = meld(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Effect: remove size()/2 of the elements from this heap, chosen by
+     * position rather than priority.
+     * Returns: a new heap containing those elements, sharing this heap's
+     * handle table.
+     * <p>
+     * A pass over the tree first records the size of every subtree. The
+     * split then descends from the root: at each node it detaches each
+     * child whose subtree fits in the number of elements still wanted, and
+     * descends into a child whose subtree is too big. The sizes add up, so
+     * exactly size()/2 elements are detached. Takes O(n) time for the
+     * counting pass, plus O(log n) to meld each detached subtree into the
+     * result; at most two subtrees are detached per level of the descent.
+     */
+    public LeftistHeap<E, P> split() {
+        LeftistHeap<E, P> result = new LeftistHeap<>(this);
+        int wanted = size / 2;
+        if (wanted == 0) return result;
+        countNodes();
+        ArrayList<Node<E>> path = new ArrayList<>();
+        Node<E> n = root;
+        while (wanted > 0) {
+            path.add(n);
+            Node<E> l = n.left, r = n.right, next = null;
+            if (l != null && l.count <= wanted) {
+                n.left = null;
+                wanted -= detach(l, result);
+            } else {
+                next = l;
+            }
+            if (r != null && wanted > 0) {
+                if (r.count <= wanted) {
+                    n.right = null;
+                    wanted -= detach(r, result);
+                } else if (next == null) {
+                    next = r;
+                }
+            }
+            n = next;
+        }
+        // Only the nodes on the path lost children; restore their ranks.
+        for (int k = path.size() - 1; k >= 0; k--) {
+            Node<E> p = path.get(k);
+            if (rank(p.left) < rank(p.right)) {
+                Node<E> t = p.left; p.left = p.right; p.right = t;
+            }
+            p.rank = rank(p.right) + 1;
+        }
+        result.size = size / 2;
+        size -= result.size;
+        return result;
+    }
+
+    /** Effect: meld the detached subtree c into heap h. Returns: its size. */
+    private int detach(Node<E> c, LeftistHeap<E, P> h) {
+        c.parent = null;
+        h.root = meld(h.root, c);
+        return c.count;
+    }
+
+    /** Effect: set the count of every node to the size of its subtree. */
+    private void countNodes() {
+        ArrayList<Node<E>> preorder = new ArrayList<>(size);
+        ArrayDeque<Node<E>> todo = new ArrayDeque<>();
+        todo.push(root);
+        while (!todo.isEmpty()) {
+            Node<E> n = todo.pop();
+            preorder.add(n);
+            if (n.left != null) todo.push(n.left);
+            if (n.right != null) todo.push(n.right);
+        }
+        // children come after their parents in preorder
+        for (int k = preorder.size() - 1; k >= 0; k--) {
+            Node<E> n = preorder.get(k);
+            n.count = 1 + (n.left == null ? 0 : n.left.count)
+                    + (n.right == null ? 0 : n.right.count);
+        }
+    }
+
+    private static int rank(Node<?> n) {
+        return n == null ? 0 : n.rank;
+    }
+
+    /**
+     * Meld two trees by merging their rightmost paths.
+     * Returns: the root of the melded tree.
+     * Requires: a and b have no parents; either may be null.
+     */
+    private Node<E> meld(Node<E> a, Node<E> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (ops.compare(ops.priority(b.elem), ops.priority(a.elem)) < 0) {
+            Node<E> t = a; a = b; b = t;
+        }
+        if (a.right != null) a.right.parent = null;
+        a.right = meld(a.right, b);
+        a.right.parent = a;
+        if (rank(a.left) < rank(a.right)) {
+            Node<E> t = a.left; a.left = a.right; a.right = t;
+        }
+        a.rank = rank(a.right) + 1;
+        return a;
+    }
+
+    /**
+     * Effect: restore the leftist invariant at n and its ancestors after a
+     * child of n has been removed, stopping once a rank is unchanged.
+     */
+    private void fixRanks(Node<E> n) {
+        while (n != null) {
+            if (rank(n.left) < rank(n.right)) {
+                Node<E> t = n.left; n.left = n.right; n.right = t;
+            }
+            int r = rank(n.right) + 1;
+            if (r == n.rank) return;
+            n.rank = r;
+            n = n.parent;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package oodds.heaps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * A binary heap whose array lives in a memory-mapped file rather than in the
+ * Java heap, for queues with more elements than fit in memory. Each entry
+ * is a fixed-width pair of a long priority (smaller is higher priority) and
+ * a long payload that a {@code Serializer} converts to and from an element.
+ * The top levels of the heap, which every operation touches, are kept in
+ * ordinary arrays and written to the file by {@code force()}.
+ * <p>
+ * The queue survives process restarts: after {@code force()} or
+ * {@code close()}, constructing a MappedHeap on the same file reopens the
+ * queue with the same contents. Element positions are recorded only
+ * through {@code HeapElemOps}, so to use {@code increasePriority} on a
+ * reopened queue, the caller must have kept the positions too.
+ * <p>
+ * Every entry that moves during an operation has its new position
+ * recorded. By default that means decoding its payload into an element
+ * and calling {@code HeapElemOps.setPosition}. A {@code PositionTracker}
+ * can record positions by payload instead, with no decoding; a tracker
+ * that does nothing suits queues that never use {@code increasePriority}.
+ */
+public class MappedHeap<E> implements PriorityQueue<E, Long>, Closeable {
+    /** Converts between elements and fixed-width payloads. */
+    public interface Serializer<E> {
+        /** The payload representing {@code elem}. */
+        long encode(E elem);
+
+        /** The element represented by {@code payload}. */
+        E decode(long payload);
+    }
+
+    /** Records the positions of entries, identified by their payloads. */
+    public interface PositionTracker {
+        /** Effect: record that the entry with {@code payload} is now at {@code position}. */
+        void setPosition(long payload, int position);
+    }
+
+    static final long MAGIC = 0x6F6F6464734D4850L;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+    static final int SEGMENT_ENTRIES = 1 << 22;
+    static final long SEGMENT_BYTES = (long) SEGMENT_ENTRIES * ENTRY_BYTES;
+
+    HeapElemOps<E, Long> ops;
+    Serializer<E> serializer;
+    PositionTracker positions;
+    FileChannel channel;
+    MappedByteBuffer header;
+    /** The mapped regions of the file; segment s holds entries from s * SEGMENT_ENTRIES. */
+    ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    /** Entries at indices below cacheSize are kept in these arrays. */
+    long[] cacheKeys, cachePayloads;
+    int cacheSize;
+    int size;
+
+    /**
+     * Opens the queue stored in {@code file}, creating an empty one if the
+     * file does not exist. The top {@code cachedLevels} levels of the heap
+     * are kept in memory.
+     * Checks: 0 <= cachedLevels <= 30.
+     */
+    public MappedHeap(Path file, HeapElemOps<E, Long> ops, Serializer<E> serializer,
+                      int cachedLevels) throws IOException {
+        this(file, ops, serializer, cachedLevels, null);
+    }
+
+    /**
+     * Like the other constructor, but records positions through
+     * {@code positions} rather than by decoding payloads and calling
+     * {@code ops.setPosition}. If {@code positions} is null, the latter is
+     * used. {@code ops.position} must agree with what positions records.
+     */
+    public MappedHeap(Path file, HeapElemOps<E, Long> ops, Serializer<E> serializer,
+                      int cachedLevels, PositionTracker positions) throws IOException {
+        if (cachedLevels < 0 || cachedLevels > 30) {
+            throw new IllegalArgumentException("cachedLevels " + cachedLevels + " not in 0..30");
+        }
+        this.ops = ops;
+        this.serializer = serializer;
+        this.positions = (positions != null) ? positions
+                : (payload, k) -> ops.setPosition(serializer.decode(payload), k);
+        cacheSize = (1 << cachedLevels) - 1;
+        cacheKeys = new long[cacheSize];
+        cachePayloads = new long[cacheSize];
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean existing = channel.size() >= HEADER_BYTES;
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (existing) {
+                if (header.getLong(0) != MAGIC) throw new IOException(file + " is not a heap file");
+                size = (int) header.getLong(8);
+            } else {
+                header.putLong(0, MAGIC);
+                header.putLong(8, 0);
+            }
+            // map every segment holding entries, not just the cached ones
+            if (size > 0) mapThrough(size - 1);
+        } catch (Throwable t) {
+            // don't leak the channel if the file cannot be set up
+            try {
+                channel.close();
+            } catch (IOException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+        int n = Math.min(size, cacheSize);
+        for (int i = 0; i < n; i++) {
+            MappedByteBuffer s = segments.get(i / SEGMENT_ENTRIES);
+            int off = (i % SEGMENT_ENTRIES) * ENTRY_BYTES;
+            cacheKeys[i] = s.getLong(off);
+            cachePayloads[i] = s.getLong(off + 8);
+        }
+    }
+
+    @Override
+    public void add(E elem) {
+        if (size == Integer.MAX_VALUE) throw new IllegalStateException("heap is full");
+        int k = size++;
+        mapThrough(k);
+        place(ops.priority(elem), serializer.encode(elem), k);
+        bubbleUp(k);
+    }
+
+    @Override
+    public E extractMin() {
+        E result = serializer.decode(payload(0));
+        size--;
+        if (size > 0) {
+            place(key(size), payload(size), 0);
+            bubbleDown(0);
+        }
+        return result;
+    }
+
+    @Override
+    public void increasePriority(E elem, Long priority) {
+        int k = ops.position(elem);
+        if (priority > key(k)) return;
+        ops.setPriority(elem, priority);
+        place(priority, payload(k), k);
+        bubbleUp(k);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Effect: write the cached entries and the size to the file and force
+     * all changes to storage, so the queue can be reopened later.
+     */
+    public void force() {
+        int n = Math.min(size, cacheSize);
+        for (int i = 0; i < n; i++) {
+            MappedByteBuffer s = segments.get(i / SEGMENT_ENTRIES);
+            int off = (i % SEGMENT_ENTRIES) * ENTRY_BYTES;
+            s.putLong(off, cacheKeys[i]);
+            s.putLong(off + 8, cachePayloads[i]);
+        }
+        header.putLong(8, size);
+        for (MappedByteBuffer s : segments) s.force();
+        header.force();
+    }
+
+    /** Effect: force the queue to storage and close the file. */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /** Bubble down item k, moving children up into the hole. */
+    private void bubbleDown(int k) {
+        long key = key(k), payload = payload(k);
+        while (k < size / 2) {
+            int c = 2 * k + 1;
+            long ck = key(c);
+            if (c + 1 < size) {
+                long rk = key(c + 1);
+                if (rk < ck) {
+                    c++;
+                    ck = rk;
+                }
+            }
+            if (key <= ck) break;
+            move(c, k);
+            k = c;
+        }
+        place(key, payload, k);
+        positions.setPosition(payload, k);
+    }
+
+    /** Bubble up item k, moving parents down into the hole. */
+    private void bubbleUp(int k) {
+        long key = key(k), payload = payload(k);
+        while (k > 0) {
+            int parent = (k - 1) / 2;
+            if (key >= key(parent)) break;
+            move(parent, k);
+            k = parent;
+        }
+        place(key, payload, k);
+        positions.setPosition(payload, k);
+    }
+
+    /** Effect: copy the entry at index from to index to, and record its position. */
+    private void move(int from, int to) {
+        long payload = payload(from);
+        place(key(from), payload, to);
+        positions.setPosition(payload, to);
+    }
+
+    private long key(int i) {
+        if (i < cacheSize) return cacheKeys[i];
+        return segments.get(i / SEGMENT_ENTRIES).getLong((i % SEGMENT_ENTRIES) * ENTRY_BYTES);
+    }
+
+    private long payload(int i) {
+        if (i < cacheSize) return cachePayloads[i];
+        return segments.get(i / SEGMENT_ENTRIES).getLong((i % SEGMENT_ENTRIES) * ENTRY_BYTES + 8);
+    }
+
+    /** Effect: store the entry (key, payload) at index i. */
+    private void place(long key, long payload, int i) {
+        if (i < cacheSize) {
+            cacheKeys[i] = key;
+            cachePayloads[i] = payload;
+        } else {
+            MappedByteBuffer s = segments.get(i / SEGMENT_ENTRIES);
+            int off = (i % SEGMENT_ENTRIES) * ENTRY_BYTES;
+            s.putLong(off, key);
+            s.putLong(off + 8, payload);
+        }
+    }
+
+    /** Effect: map enough segments of the file to hold index i. */
+    private void mapThrough(int i) {
+        try {
+            while (segments.size() <= i / SEGMENT_ENTRIES) {
+                long start = HEADER_BYTES + segments.size() * SEGMENT_BYTES;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_BYTES));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
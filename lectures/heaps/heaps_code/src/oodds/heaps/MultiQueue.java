@@ -0,0 +1,161 @@
+package oodds.heaps;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent priority queue with relaxed ordering, built from a number of
+ * binary heaps, each protected by its own lock. Elements are added to a
+ * randomly chosen heap. extractMin looks at two randomly chosen heaps and
+ * removes the top element of the one with higher priority, so it returns an
+ * element that is close to, but not necessarily, the highest-priority
+ * element in the queue. Using more heaps reduces contention but relaxes the
+ * ordering further; a common choice is two heaps per thread.
+ * <p>
+ * The position that {@code HeapElemOps} records for an element encodes both
+ * the heap containing it and its position in that heap.
+ */
+public class MultiQueue<E, P> implements PriorityQueue<E, P> {
+    HeapElemOps<E, P> ops;
+    Sub[] subs;
+
+    /** One of the heaps, with its lock and a copy of its top element. */
+    class Sub {
+        final ReentrantLock lock = new ReentrantLock();
+        final BinaryHeap<E, P> heap;
+        /** The top element of heap, or null if it is empty. */
+        volatile E top;
+
+        Sub(int index) {
+            heap = new BinaryHeap<>(new SubOps(index));
+        }
+
+        /** Effect: update top. Requires: lock is held. */
+        void updateTop() {
+            top = heap.isEmpty() ? null : heap.peek();
+        }
+    }
+
+    /** Element operations for one heap, encoding the heap index in positions. */
+    class SubOps implements HeapElemOps<E, P> {
+        final int index;
+        SubOps(int index) { this.index = index; }
+
+        public P priority(E elem) { return ops.priority(elem); }
+        public int compare(P p1, P p2) { return ops.compare(p1, p2); }
+        public void setPriority(E elem, P priority) { ops.setPriority(elem, priority); }
+        public int position(E elem) { return ops.position(elem) / subs.length; }
+        public void setPosition(E elem, int pos) {
+            ops.setPosition(elem, pos * subs.length + index);
+        }
+    }
+
+    /**
+     * Creates a queue made of {@code queues} heaps. The number of heaps is the
+     * relaxation bound: the more heaps, the less contention and the weaker the
+     * ordering guarantee.
+     * Requires: queues >= 1, and the number of elements in the queue times
+     * {@code queues} fits in an int.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueue(HeapElemOps<E, P> ops, int queues) {
+        if (queues < 1) throw new IllegalArgumentException("need at least one queue");
+        this.ops = ops;
+        subs = (Sub[]) new MultiQueue<?, ?>.Sub[queues];
+        for (int i = 0; i < queues; i++) subs[i] = new Sub(i);
+    }
+
+    @Override
+    public void add(E elem) {
+        Sub s = lockRandom();
+        try {
+            s.heap.add(elem);
+            s.updateTop();
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Effect: Removes and returns an element of high priority from the queue.
+     * Because other threads may be removing elements at the same time, the
+     * queue may become empty concurrently; in that case, returns null.
+     */
+    @Override
+    public E extractMin() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 2 * subs.length; attempt++) {
+            Sub a = subs[rnd.nextInt(subs.length)];
+            Sub b = subs[rnd.nextInt(subs.length)];
+            E ta = a.top, tb = b.top;
+            if (ta == null && tb == null) continue;
+            Sub s = (ta == null || tb != null
+                    && ops.compare(ops.priority(tb), ops.priority(ta)) < 0) ? b : a;
+            if (!s.lock.tryLock()) continue;
+            try {
+                if (!s.heap.isEmpty()) {
+                    E result = s.heap.extractMin();
+                    s.updateTop();
+                    return result;
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        // The heaps sampled were empty or busy; scan all of them.
+        for (Sub s : subs) {
+            if (s.top == null) continue;
+            s.lock.lock();
+            try {
+                if (!s.heap.isEmpty()) {
+                    E result = s.heap.extractMin();
+                    s.updateTop();
+                    return result;
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void increasePriority(E elem, P priority) {
+        Sub s = subs[ops.position(elem) % subs.length];
+        s.lock.lock();
+        try {
+            s.heap.increasePriority(elem, priority);
+            s.updateTop();
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns: whether the queue is empty. The result may be out of date
+     * if other threads are modifying the queue.
+     */
+    @Override
+    public boolean isEmpty() {
+        for (Sub s : subs) {
+            if (s.top != null) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lock a randomly chosen heap, preferring one that is not busy. After
+     * a few failed attempts, waits for the lock of the last heap tried.
+     */
+    private Sub lockRandom() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int attempt = 0; ; attempt++) {
+            Sub s = subs[rnd.nextInt(subs.length)];
+            if (s.lock.tryLock()) return s;
+            if (attempt >= subs.length) {
+                s.lock.lock();
+                return s;
+            }
+        }
+    }
+}
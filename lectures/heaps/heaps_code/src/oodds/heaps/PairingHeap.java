@@ -0,0 +1,159 @@
+package oodds.heaps;
+
+import java.util.ArrayList;
+
+/**
+ * A pairing heap. Unlike a binary heap, it does not maintain the Shape
+ * invariant: it is a tree of arbitrary shape satisfying the heap invariant,
+ * represented with pointers. Adding an element and increasing its priority
+ * take O(1) time, and extractMin takes O(log n) amortized time.
+ * <p>
+ * Since elements are not stored at array indices, the position that
+ * {@code HeapElemOps} records for each element is a handle: the index of
+ * the element's tree node in a table of nodes.
+ */
+public class PairingHeap<E, P> implements PriorityQueue<E, P> {
+    HeapElemOps<E, P> ops;
+    /** The root of the tree, or null if the heap is empty. */
+    Node<E> root;
+    /** nodes.get(h) is the node with handle h, or null if h is unused. */
+    ArrayList<Node<E>> nodes = new ArrayList<>();
+    /** Handles of unused entries in nodes. */
+    ArrayList<Integer> free = new ArrayList<>();
+    int size;
+
+    /**
+     * A tree node. The children of a node form a doubly-linked list
+     * starting at child. prev is the previous sibling, or the parent
+     * for the first child in the list.
+     */
+    static class Node<E> {
+        E elem;
+        int handle;
+        Node<E> child, next, prev;
+        Node(E elem, int handle) {
+            this.elem = elem;
+            this.handle = handle;
+        }
+    }
+
+    public PairingHeap(HeapElemOps<E, P> ops) {
+        this.ops = ops;
+    }
+
+    @Override
+    public void add(E elem) {
+        int h;
+        if (free.isEmpty()) {
+            h = nodes.size();
+            nodes.add(null);
+        } else {
+            h = free.remove(free.size() - 1);
+        }
+        Node<E> n = new Node<>(elem, h);
+        nodes.set(h, n);
+        ops.setPosition(elem, h);
+        root = link(root, n);
+        size++;
+    }
+
+    @Override
+    public E extractMin() {
+        Node<E> r = root;
+        nodes.set(r.handle, null);
+        free.add(r.handle);
+        root = combineSiblings(r.child);
+        if (root != null) root.prev = null;
+        size--;
+        return r.elem;
+    }
+
+    /**
+     * Effect: change the priority of {@code elem} to the new priority.
+     * Has no effect if {@code priority} is lower than
+     * {@code elem}'s current priority. If the element is not at the root,
+     * its subtree is cut out and linked with the root, taking O(1) time.
+     */
+    @Override
+    public void increasePriority(E elem, P priority) {
+        if (ops.compare(priority, ops.priority(elem)) > 0) return;
+        ops.setPriority(elem, priority);
+        Node<E> n = nodes.get(ops.position(elem));
+        if (n == root) return;
+        // cut n out of its sibling list
+        if (n.prev.child == n) {
+            n.prev.child = n.next;
+        } else {
+            n.prev.next = n.next;
+        }
+        if (n.next != null) n.next.prev = n.prev;
+        n.next = n.prev = null;
+        root = link(root, n);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Whether node a has higher priority than node b. */
+    private boolean higher(Node<E> a, Node<E> b) {
+        return ops.compare(ops.priority(a.elem), ops.priority(b.elem)) < 0;
+    }
+
+    /**
+     * Link two trees, making the root of lower priority the first child of
+     * the other root. Returns: the root of the combined tree.
+     * Requires: a and b are roots without siblings; either may be null.
+     */
+    private Node<E> link(Node<E> a, Node<E> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (higher(b, a)) {
+            Node<E> t = a; a = b; b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) a.child.prev = b;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Combine a list of sibling trees into one using the standard two-pass
+     * scheme: link siblings in pairs from left to right, then link the
+     * resulting trees from right to left.
+     * Returns: the root of the combined tree, or null if first is null.
+     */
+    private Node<E> combineSiblings(Node<E> first) {
+        if (first == null) return null;
+        // first pass: pair up siblings, chaining the results through prev
+        Node<E> last = null;
+        Node<E> n = first;
+        while (n != null) {
+            Node<E> a = n;
+            Node<E> b = n.next;
+            n = (b == null) ? null : b.next;
+            a.next = a.prev = null;
+            if (b != null) b.next = b.prev = null;
+            Node<E> t = link(a, b);
+            t.prev = last;
+            last = t;
+        }
+        // second pass: link from right to left
+        Node<E> result = last;
+        Node<E> t = last.prev;
+        result.prev = null;
+        while (t != null) {
+            Node<E> p = t.prev;
+            t.prev = null;
+            result = link(t, result);
+            t = p;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+package oodds.heaps;
+
+import java.util.ArrayList;
+
+/**
+ * A radix heap: a monotone priority queue for nonnegative integer
+ * priorities. It is monotone in that the priority of every element added
+ * (or increased) must be no higher than that of the last element extracted,
+ * which is the case for Dijkstra's algorithm with integer edge weights.
+ * <p>
+ * Elements are kept in buckets according to the highest bit in which their
+ * priority differs from the last extracted priority. Adding an element or
+ * increasing its priority takes O(1) time, and extractMin takes
+ * O(log C) amortized time, where C is the largest priority.
+ * The position that {@code HeapElemOps} records is the index of the element
+ * within its bucket.
+ */
+public class RadixHeap<E, P extends Number> implements PriorityQueue<E, P> {
+    HeapElemOps<E, P> ops;
+    /**
+     * buckets[0] holds the elements whose priority is equal to last.
+     * buckets[i] for i > 0 holds those whose priority differs from last
+     * in bit i-1 and in no higher bit.
+     */
+    ArrayList<ArrayList<E>> buckets = new ArrayList<>();
+    /** The priority of the last element extracted. */
+    long last;
+    int size;
+
+    public RadixHeap(HeapElemOps<E, P> ops) {
+        this.ops = ops;
+        for (int i = 0; i <= Long.SIZE; i++) buckets.add(new ArrayList<>());
+    }
+
+    /**
+     * Effect: Pushes {@code elem} onto the queue at its
+     *         current priority.
+     * Requires: The priority of {@code elem} is no less than that of
+     *         the last element extracted.
+     */
+    @Override
+    public void add(E elem) {
+        insert(elem);
+        size++;
+    }
+
+    @Override
+    public E extractMin() {
+        ArrayList<E> b0 = buckets.get(0);
+        if (b0.isEmpty()) {
+            int i = 1;
+            while (buckets.get(i).isEmpty()) i++;
+            ArrayList<E> b = buckets.get(i);
+            long min = Long.MAX_VALUE;
+            for (E e : b) min = Math.min(min, key(e));
+            last = min;
+            // every element of b now belongs to a lower bucket
+            ArrayList<E> moved = new ArrayList<>(b);
+            b.clear();
+            for (E e : moved) insert(e);
+        }
+        size--;
+        return b0.remove(b0.size() - 1);
+    }
+
+    /**
+     * Effect: change the priority of {@code elem} to the new priority.
+     * Has no effect if {@code priority} is lower than
+     * {@code elem}'s current priority.
+     * Requires: {@code elem} is already in the queue, and {@code priority}
+     *         is no less than that of the last element extracted.
+     */
+    @Override
+    public void increasePriority(E elem, P priority) {
+        if (priority.longValue() > key(elem)) return;
+        ArrayList<E> b = buckets.get(bucket(key(elem)));
+        int pos = ops.position(elem);
+        E moved = b.remove(b.size() - 1);
+        if (moved != elem) {
+            b.set(pos, moved);
+            ops.setPosition(moved, pos);
+        }
+        ops.setPriority(elem, priority);
+        insert(elem);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The priority of e as a long. */
+    private long key(E e) {
+        return ops.priority(e).longValue();
+    }
+
+    /** The bucket for priority k. */
+    private int bucket(long k) {
+        return Long.SIZE - Long.numberOfLeadingZeros(k ^ last);
+    }
+
+    /** Effect: put e into the bucket for its priority and record its position. */
+    private void insert(E e) {
+        ArrayList<E> b = buckets.get(bucket(key(e)));
+        ops.setPosition(e, b.size());
+        b.add(e);
+    }
+}
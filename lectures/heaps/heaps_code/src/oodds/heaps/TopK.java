@@ -0,0 +1,89 @@
+package oodds.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Collects the k elements of highest priority from a stream of elements.
+ * The elements kept are stored in a heap whose root is the element of
+ * lowest priority among them, so an element that is no better than all of
+ * them is rejected with a single comparison, and a better one replaces the
+ * root with a single O(log k) sift down.
+ */
+public class TopK<E, P> {
+    HeapElemOps<E, P> ops;
+    int k;
+    /** The elements kept so far, with the one of lowest priority at the root. */
+    BinaryHeap<E, P> heap;
+
+    /**
+     * Element operations that reverse the order of priorities, so the heap
+     * root is the element of lowest priority. Positions are not recorded,
+     * since elements are never looked up, and the elements may also belong
+     * to some other priority queue that uses their positions.
+     */
+    class Reversed implements HeapElemOps<E, P> {
+        public P priority(E elem) { return ops.priority(elem); }
+        public int compare(P p1, P p2) { return ops.compare(p2, p1); }
+        public void setPriority(E elem, P priority) { ops.setPriority(elem, priority); }
+        public int position(E elem) { return 0; }
+        public void setPosition(E elem, int pos) { }
+    }
+
+    /** Creates a collector of the k elements of highest priority. Requires: k >= 1. */
+    public TopK(int k, HeapElemOps<E, P> ops) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive");
+        this.k = k;
+        this.ops = ops;
+        heap = new BinaryHeap<>(new Reversed());
+    }
+
+    /**
+     * Effect: keep {@code elem} if it is among the k elements of highest
+     * priority seen so far.
+     * Returns: whether {@code elem} was kept.
+     */
+    public boolean offer(E elem) {
+        if (heap.size() < k) {
+            heap.add(elem);
+            return true;
+        }
+        if (ops.compare(ops.priority(elem), ops.priority(heap.peek())) >= 0) return false;
+        heap.replaceMin(elem);
+        return true;
+    }
+
+    /**
+     * Effect: offer every element kept by {@code other}, so that this
+     * collector keeps the k best elements of both. Takes O(k log k) time.
+     */
+    public void merge(TopK<E, P> other) {
+        for (E e : other.heap.items) offer(e);
+    }
+
+    /** Returns: the elements kept, in order from highest to lowest priority. */
+    public List<E> result() {
+        List<E> result = new ArrayList<>(heap.items);
+        result.sort((a, b) -> ops.compare(ops.priority(a), ops.priority(b)));
+        return result;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns: a collector that produces the k elements of highest priority
+     * in a stream, in order from highest to lowest priority. With a
+     * parallel stream, partial results are merged in O(k log k) time.
+     */
+    public static <E, P> Collector<E, TopK<E, P>, List<E>> collector(int k, HeapElemOps<E, P> ops) {
+        return Collector.of(() -> new TopK<>(k, ops), TopK::offer,
+                (a, b) -> {
+                    a.merge(b);
+                    return a;
+                },
+                TopK::result);
+    }
+}
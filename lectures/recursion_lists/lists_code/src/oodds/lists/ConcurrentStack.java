@@ -0,0 +1,102 @@
+package oodds.lists;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free stack that many threads may use at once (a Treiber stack).
+ * The top of the stack is an {@code AtomicReference}; push and pop read
+ * it, build the new top, and install it with compareAndSet, retrying if
+ * another thread changed the top in between.
+ * <p>
+ * Under heavy contention most of those compareAndSets fail. A thread whose
+ * compareAndSet fails then tries elimination before retrying: a pushing
+ * thread offers its node in a random slot of an elimination array and
+ * waits briefly, and a popping thread looks in a random slot for an
+ * offered node and takes it. A push and a pop that meet this way cancel
+ * out without touching the top at all, so the stack can complete more
+ * operations as more threads contend for it.
+ */
+public class ConcurrentStack<T> {
+    /** How long a pusher waits in the elimination array, in spin iterations. */
+    static final int SPINS = 64;
+
+    private final AtomicReference<Node<T>> top = new AtomicReference<>();
+    /** Nodes offered by pushers, or null in empty slots. Has length 0 if
+     *  elimination is disabled.
+     */
+    private final AtomicReferenceArray<Node<T>> slots;
+
+    /** Creates an empty stack with an elimination array sized for the
+     *  number of processors.
+     */
+    public ConcurrentStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /** Creates an empty stack with the given number of elimination slots.
+     *  If it is 0, the stack is a plain Treiber stack.
+     */
+    public ConcurrentStack(int eliminationSlots) {
+        if (eliminationSlots < 0) throw new IllegalArgumentException("slots " + eliminationSlots);
+        slots = new AtomicReferenceArray<>(eliminationSlots);
+    }
+
+    /** Effect: push x on the stack. */
+    public void push(T x) {
+        Node<T> n = new Node<>(x, null);
+        while (true) {
+            Node<T> t = top.get();
+            n.next = t;
+            if (top.compareAndSet(t, n)) return;
+            if (slots.length() > 0 && offer(n)) return;
+        }
+    }
+
+    /** Effect: remove the top element, if any.
+     *  Returns: that element, or null if the stack was empty.
+     */
+    public T pop() {
+        while (true) {
+            Node<T> t = top.get();
+            if (t == null) return null;
+            if (top.compareAndSet(t, t.next)) return t.data;
+            if (slots.length() > 0) {
+                Node<T> n = take();
+                if (n != null) return n.data;
+            }
+        }
+    }
+
+    /** Returns: whether the stack is empty. */
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    /**
+     * Effect: offer n to popping threads in a random elimination slot, and
+     * wait a while for one to take it.
+     * Returns: whether a popping thread took n, which completes the push.
+     */
+    private boolean offer(Node<T> n) {
+        int i = ThreadLocalRandom.current().nextInt(slots.length());
+        if (!slots.compareAndSet(i, null, n)) return false;
+        for (int k = 0; k < SPINS; k++) {
+            if (slots.get(i) != n) return true;
+            Thread.onSpinWait();
+        }
+        // Withdraw the offer. If that fails, a popper took n in the meantime.
+        return !slots.compareAndSet(i, n, null);
+    }
+
+    /** Returns: a node taken from a random elimination slot, or null if
+     *  that slot held none.
+     */
+    private Node<T> take() {
+        int i = ThreadLocalRandom.current().nextInt(slots.length());
+        Node<T> n = slots.get(i);
+        if (n != null && slots.compareAndSet(i, n, null)) return n;
+        return null;
+    }
+}
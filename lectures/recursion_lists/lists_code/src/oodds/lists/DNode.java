@@ -0,0 +1,15 @@
+package oodds.lists;
+
+/** A node of a doubly linked list. */
+class DNode<T> {
+    DNode<T> prev, next;
+    /* invariant: If next ≠ null, next.prev = this.
+                  If prev ≠ null, prev.next = this. */
+    T data;
+
+    DNode(T d, DNode<T> p, DNode<T> n) {
+        data = d;
+        prev = p;
+        next = n;
+    }
+}
@@ -0,0 +1,217 @@
+package oodds.lists;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable list stored as a chain of nodes, which lists share.
+ * <p>
+ * Walking a list with {@code first()} and {@code rest()} allocates a new
+ * list object per step. The traversal methods here instead follow the
+ * node chain directly: {@code forEach}, {@code fold} and {@code iterator}
+ * allocate nothing per element, and {@code map}, {@code filter} and
+ * {@code reverse} allocate only the nodes of their result ({@code filter}
+ * also uses one bit per element to remember which ones it keeps). For a
+ * pipeline of several maps and filters, {@code stream()} followed by
+ * {@code collect(toImmList())} makes one pass and builds only the final
+ * list; the stream may also be parallel.
+ */
+public class ImmListImpl<T> implements ImmList<T>, Iterable<T> {
+    private Node<T> head; // may be null to represent empty list
+
+    public ImmListImpl() {
+        head = null;
+    }
+
+    private ImmListImpl(Node<T> head) {
+        this.head = head;
+    }
+
+    @Override
+    public boolean empty() {
+        return (head == null);
+    }
+
+    @Override
+    public T first() {
+        if (head == null) throw new IllegalStateException("empty list");
+        return head.data;
+    }
+
+    @Override
+    public ImmList<T> rest() {
+        if (head == null) throw new IllegalStateException("empty list");
+        return new ImmListImpl<>(head.next);
+    }
+
+    @Override
+    public ImmList<T> cons(T x) {
+        return new ImmListImpl<>(new Node<>(x, head));
+    }
+
+    /** Effect: apply action to each element, in order. */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        for (Node<T> n = head; n != null; n = n.next) action.accept(n.data);
+    }
+
+    /** Returns: f(...f(f(init, a_{0}), a_{1})..., a_{n-1}), or init if the
+     *  list is empty.
+     */
+    public <R> R fold(R init, BiFunction<R, ? super T, R> f) {
+        R result = init;
+        for (Node<T> n = head; n != null; n = n.next) result = f.apply(result, n.data);
+        return result;
+    }
+
+    /** Returns: the list (f(a_{0}), ..., f(a_{n-1})). */
+    public <R> ImmListImpl<R> map(Function<? super T, ? extends R> f) {
+        Builder<R> b = new Builder<>();
+        for (Node<T> n = head; n != null; n = n.next) b.add(f.apply(n.data));
+        return b.build();
+    }
+
+    /**
+     * Returns: the list of the elements that satisfy p, in order. The result
+     * shares this list's nodes after its last rejected element, and copies
+     * only the kept elements before it. p is tested once per element; a
+     * first pass records the results in a bit set and finds the last
+     * rejected element.
+     */
+    public ImmListImpl<T> filter(Predicate<? super T> p) {
+        BitSet kept = new BitSet();
+        Node<T> rejected = null; // the last rejected node
+        int i = 0;
+        for (Node<T> n = head; n != null; n = n.next, i++) {
+            if (p.test(n.data)) kept.set(i);
+            else rejected = n;
+        }
+        if (rejected == null) return this;
+        Builder<T> b = new Builder<>();
+        i = 0;
+        for (Node<T> n = head; n != rejected; n = n.next, i++) {
+            if (kept.get(i)) b.add(n.data);
+        }
+        if (b.first == null) return new ImmListImpl<>(rejected.next);
+        b.last.next = rejected.next;
+        return new ImmListImpl<>(b.first);
+    }
+
+    /** Returns: the list (a_{n-1}, ..., a_{0}). */
+    public ImmListImpl<T> reverse() {
+        Node<T> r = null;
+        for (Node<T> n = head; n != null; n = n.next) r = new Node<>(n.data, r);
+        return new ImmListImpl<>(r);
+    }
+
+    /** Returns: an iterator over the elements, in order. */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            Node<T> next = head;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) throw new NoSuchElementException();
+                T x = next.data;
+                next = next.next;
+                return x;
+            }
+        };
+    }
+
+    /**
+     * Returns: a spliterator over the elements, in order. The length of the
+     * list is not stored, so the spliterator does not report a size; it
+     * splits by copying successively larger batches of elements into
+     * arrays, which parallel streams can then divide further.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+            Node<T> next = head;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (next == null) return false;
+                action.accept(next.data);
+                next = next.next;
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                for (Node<T> n = next; n != null; n = n.next) action.accept(n.data);
+                next = null;
+            }
+        };
+    }
+
+    /** Returns: a stream of the elements, in order. */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Returns: a stream of the elements, in order, that may run in parallel. */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns: a collector that puts the elements of a stream into an
+     * ImmListImpl, in encounter order. Each thread of a parallel stream
+     * builds its own chain of nodes, and combining two chains links one to
+     * the other, without copying.
+     */
+    public static <T> Collector<T, ?, ImmListImpl<T>> toImmList() {
+        return Collector.of(Builder<T>::new, Builder::add, Builder::append, Builder::build);
+    }
+
+    /**
+     * A chain of new nodes built from front to back. The nodes are not
+     * shared with any list until the chain is built, so they may still be
+     * changed.
+     */
+    private static class Builder<T> {
+        Node<T> first, last;
+
+        void add(T x) {
+            Node<T> n = new Node<>(x, null);
+            if (first == null) first = n;
+            else last.next = n;
+            last = n;
+        }
+
+        /** Effect: move the nodes of b onto the end of this chain.
+         *  Returns: the combined chain.
+         */
+        Builder<T> append(Builder<T> b) {
+            if (first == null) return b;
+            if (b.first != null) {
+                last.next = b.first;
+                last = b.last;
+            }
+            return this;
+        }
+
+        ImmListImpl<T> build() {
+            return new ImmListImpl<>(first);
+        }
+    }
+}
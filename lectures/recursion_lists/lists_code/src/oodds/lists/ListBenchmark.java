@@ -0,0 +1,58 @@
+package oodds.lists;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares MList, unindexed and indexed, with UnrolledList at several
+ * chunk sizes, reporting the memory used per element (excluding the
+ * elements themselves), the time to append all elements, the time for a
+ * contains() that scans the whole list without finding its argument, and
+ * the time to remove 100 elements chosen at random.
+ * Usage: java oodds.lists.ListBenchmark [size]
+ */
+public class ListBenchmark {
+    static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static void run(String name, Supplier<MutList<Integer>> create, Integer[] elems, boolean print) {
+        long before = usedMemory();
+        long t0 = System.nanoTime();
+        MutList<Integer> list = create.get();
+        for (Integer x : elems) list.append(x);
+        long t1 = System.nanoTime();
+        long bytes = usedMemory() - before;
+        Integer missing = -1;
+        long t2 = System.nanoTime();
+        for (int k = 0; k < 5; k++) {
+            if (list.contains(missing)) throw new AssertionError();
+        }
+        long t3 = System.nanoTime();
+        Random r = new Random(1);
+        for (int k = 0; k < 100; k++) list.remove(elems[r.nextInt(elems.length)]);
+        long t4 = System.nanoTime();
+        if (print) {
+            System.out.printf("%-16s %13.1f %10.1f %10.1f %10.2f%n", name, (double) bytes / list.size(),
+                    (t1 - t0) / 1e6, (t3 - t2) / 5e6, (t4 - t3) / 1e6);
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] elems = new Integer[n];
+        for (int i = 0; i < n; i++) elems[i] = i;
+        System.out.printf("%-16s %13s %10s %10s %10s%n", "list", "bytes/element", "append ms", "scan ms",
+                "remove ms");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            boolean print = round > 0;
+            run("MList", MList::new, elems, print);
+            run("MList(indexed)", () -> new MList<>(true), elems, print);
+            for (int chunk : new int[] {16, 32, 64}) {
+                run("UnrolledList(" + chunk + ")", () -> new UnrolledList<>(chunk), elems, print);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package oodds.lists;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * A mutable list stored as a doubly linked list of nodes, one per element.
+ * <p>
+ * In indexed mode, the list also keeps a hash table from each element to
+ * the first node containing it, so that {@code contains} and
+ * {@code remove} take expected O(1) time instead of scanning the list.
+ * The table costs memory per element, so the mode is chosen when the list
+ * is created. Elements must then have hash codes consistent with equals,
+ * and must not change while in the list.
+ */
+public class MList<T> implements MutList<T> {
+    private DNode<T> head;
+    // invariant: size is the number of nodes in the list starting with head.
+    private int size;
+    // The last node in the list. Is null iff head is null.
+    private DNode<T> last;
+    // In indexed mode, maps each element x in the list to the first node
+    // containing x. Null if the list is not indexed.
+    private HashMap<Object, DNode<T>> index;
+    // In indexed mode, maps each element occurring more than once to the
+    // nodes containing it after the first, in list order. Null if the list
+    // is not indexed.
+    private HashMap<Object, ArrayDeque<DNode<T>>> duplicates;
+
+    public MList() {
+        this(false);
+    }
+
+    /** Creates an empty list, which is indexed if {@code indexed} is true. */
+    public MList(boolean indexed) {
+        if (indexed) {
+            index = new HashMap<>();
+            duplicates = new HashMap<>();
+        }
+    }
+
+    /** Returns: whether the list is indexed. */
+    public boolean indexed() { return index != null; }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public T get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        DNode<T> n;
+        if (i < size / 2) {
+            for (n = head; i > 0; i--) n = n.next;
+        } else {
+            for (n = last, i = size - 1 - i; i > 0; i--) n = n.prev;
+        }
+        return n.data;
+    }
+
+    @Override
+    public void prepend(T x) {
+        DNode<T> n = new DNode<>(x, null, head);
+        if (head == null) last = n;
+        else head.prev = n;
+        head = n;
+        size++;                        // restore the size invariant
+        if (index != null) {
+            DNode<T> first = index.put(x, n);
+            if (first != null) duplicates.computeIfAbsent(x, k -> new ArrayDeque<>()).addFirst(first);
+        }
+    }
+
+    @Override
+    public void append(T x) {
+        DNode<T> n = new DNode<>(x, last, null);
+        if (head == null)
+            head = last = n;
+        else
+            last = last.next = n;
+        size++;
+        if (index != null) {
+            DNode<T> first = index.putIfAbsent(x, n);
+            if (first != null) duplicates.computeIfAbsent(x, k -> new ArrayDeque<>()).addLast(n);
+        }
+    }
+
+    @Override
+    public boolean remove(Object x) {
+        DNode<T> n;
+        if (index != null) {
+            n = index.get(x);
+            if (n == null) return false;
+            ArrayDeque<DNode<T>> later = duplicates.get(x);
+            if (later == null) {
+                index.remove(x);
+            } else {
+                index.put(x, later.removeFirst());
+                if (later.isEmpty()) duplicates.remove(x);
+            }
+        } else {
+            n = head;
+            while (n != null && !x.equals(n.data)) n = n.next;
+            if (n == null) return false;
+        }
+        size--;
+        // splice out n
+        if (n.prev == null) head = n.next;
+        else n.prev.next = n.next;
+        if (n.next == null) last = n.prev;
+        else n.next.prev = n.prev;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object x) {
+        if (index != null) return index.containsKey(x);
+        for (DNode<T> n = head; n != null; n = n.next) {
+            if (x.equals(n.data)) return true;
+        }
+        return false;
+    }
+}
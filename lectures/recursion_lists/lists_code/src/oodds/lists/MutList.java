@@ -0,0 +1,24 @@
+package oodds.lists;
+
+/** A mutable ordered list (a_{0}, a_{1}, ..., a_{n-1}) */
+public interface MutList<T> {
+    /** The number of objects in the list. */
+    int size();
+
+    /** Returns: The object at index i (a_{i}).
+     *  Requires: 0 ≤ i < n */
+    T get(int i);
+
+    /** Effects: Inserts x at the head of the list. */
+    void prepend(T x);
+
+    /** Effects: Inserts x at the end of the list. */
+    void append(T x);
+
+    /** Returns: true if x is in the list.
+     *  Effects: Removes the first occurrence of object x from the list. */
+    boolean remove(Object x);
+
+    /** Returns: true if x is in the list. */
+    boolean contains(Object x);
+}
@@ -0,0 +1,372 @@
+package oodds.lists;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable sequence with fast indexed access, stored as a trie of
+ * 32-element arrays. The element at index i is found by using successive
+ * 5-bit groups of i, from the most significant, to choose a child at each
+ * level, so {@code get} and {@code update} take O(log_32 n) time: at most
+ * 7 steps for any int index. The last (up to) 32 elements are kept in a
+ * separate tail array, so {@code append} usually only copies the tail.
+ * Updates copy just the arrays on one root-to-leaf path and share the
+ * rest with the original vector.
+ * <p>
+ * A vector is a window [start, end) onto the elements of a trie, which
+ * makes {@code slice} O(1). Elements outside the window stay reachable,
+ * so a small slice of a large vector keeps the whole trie alive.
+ * <p>
+ * A vector is also an {@code ImmList}. {@code rest} is a slice. {@code cons}
+ * fills free slots before the window when there are any; when there are
+ * none, it copies the vector into a new trie with room in front, as much
+ * as the vector's length, so a series of conses takes amortized
+ * O(log n) time each.
+ * <p>
+ * For building a vector with many updates, a {@code Transient} changes in
+ * place the arrays it has created itself.
+ */
+public class PersistentVector<T> implements ImmList<T>, Iterable<T> {
+    static final int BITS = 5;
+    static final int WIDTH = 1 << BITS;
+    static final int MASK = WIDTH - 1;
+
+    /** An interior node or leaf of the trie. */
+    static class TrieNode {
+        /** The transient allowed to change this node in place, or null if none is. */
+        final Object edit;
+        final Object[] array;
+
+        TrieNode(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+    }
+
+    static final TrieNode EMPTY_NODE = new TrieNode(null, new Object[WIDTH]);
+    @SuppressWarnings("rawtypes")
+    static final PersistentVector EMPTY =
+            new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0], 0, 0);
+
+    /** The number of elements in the trie, including those outside the window. */
+    final int count;
+    /** The number of index bits below the root level. */
+    final int shift;
+    final TrieNode root;
+    /** Elements tailOffset()..count-1; has exactly that many slots. */
+    final Object[] tail;
+    /** The window: this vector's elements are trie elements start..end-1. */
+    final int start, end;
+
+    PersistentVector(int count, int shift, TrieNode root, Object[] tail, int start, int end) {
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+        this.start = start;
+        this.end = end;
+    }
+
+    /** Returns: the empty vector. */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> emptyVector() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /** Returns: a vector of the elements of a, in order. */
+    @SafeVarargs
+    public static <T> PersistentVector<T> of(T... a) {
+        Transient<T> t = new Transient<>(emptyVector());
+        for (T x : a) t.append(x);
+        return t.persistent();
+    }
+
+    public int size() {
+        return end - start;
+    }
+
+    /** Returns: the element at index i. Checks: 0 ≤ i < size(). */
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        if (i < 0 || i >= size()) throw new IndexOutOfBoundsException(i);
+        int j = start + i;
+        return (T) leafFor(root, shift, tail, count, j)[j & MASK];
+    }
+
+    /** Returns: a vector like this one, with x added at the end. */
+    public PersistentVector<T> append(T x) {
+        if (end < count) {
+            // the slot after the window exists already; reuse it
+            PersistentVector<T> v = setTrie(end, x);
+            return new PersistentVector<>(v.count, v.shift, v.root, v.tail, start, end + 1);
+        }
+        int tailOffset = tailOffset(count);
+        if (count - tailOffset < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = x;
+            return new PersistentVector<>(count + 1, shift, root, newTail, start, end + 1);
+        }
+        TrieNode leaf = new TrieNode(null, tail);
+        int newShift = shift;
+        TrieNode newRoot;
+        if ((count >>> BITS) > (1 << shift)) { // root is full
+            newRoot = new TrieNode(null, new Object[WIDTH]);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, leaf);
+            newShift += BITS;
+        } else {
+            newRoot = pushLeaf(null, count, shift, root, leaf);
+        }
+        return new PersistentVector<>(count + 1, newShift, newRoot, new Object[] {x}, start, end + 1);
+    }
+
+    /** Returns: a vector like this one, with the element at index i
+     *  replaced by x. Checks: 0 ≤ i < size().
+     */
+    public PersistentVector<T> update(int i, T x) {
+        if (i < 0 || i >= size()) throw new IndexOutOfBoundsException(i);
+        return setTrie(start + i, x);
+    }
+
+    /** Returns: the elements at indices from..to-1, in O(1) time.
+     *  Checks: 0 ≤ from ≤ to ≤ size().
+     */
+    public PersistentVector<T> slice(int from, int to) {
+        if (from < 0 || from > to || to > size()) {
+            throw new IndexOutOfBoundsException("slice [" + from + ", " + to + ") of " + size());
+        }
+        return new PersistentVector<>(count, shift, root, tail, start + from, start + to);
+    }
+
+    @Override
+    public boolean empty() {
+        return start == end;
+    }
+
+    @Override
+    public T first() {
+        if (empty()) throw new IllegalStateException("empty list");
+        return get(0);
+    }
+
+    @Override
+    public PersistentVector<T> rest() {
+        if (empty()) throw new IllegalStateException("empty list");
+        return slice(1, size());
+    }
+
+    @Override
+    public PersistentVector<T> cons(T x) {
+        if (start > 0) {
+            PersistentVector<T> v = setTrie(start - 1, x);
+            return new PersistentVector<>(v.count, v.shift, v.root, v.tail, start - 1, end);
+        }
+        int room = Math.max(WIDTH, size());
+        Transient<T> t = new Transient<>(emptyVector());
+        for (int i = 0; i < room - 1; i++) t.append(null);
+        t.append(x);
+        for (T y : this) t.append(y);
+        PersistentVector<T> v = t.persistent();
+        return new PersistentVector<>(v.count, v.shift, v.root, v.tail, room - 1, v.count);
+    }
+
+    /** Returns: a transient vector with the same elements as this one. */
+    public Transient<T> toTransient() {
+        return new Transient<>(this);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            int j = start;
+            Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return j < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (j >= end) throw new NoSuchElementException();
+                if (leaf == null || (j & MASK) == 0) leaf = leafFor(root, shift, tail, count, j);
+                return (T) leaf[j++ & MASK];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("[");
+        String sep = "";
+        for (T x : this) {
+            b.append(sep).append(x);
+            sep = ", ";
+        }
+        return b.append(']').toString();
+    }
+
+    /** Returns: a vector whose trie has x at index j. Requires: j < count. */
+    private PersistentVector<T> setTrie(int j, T x) {
+        if (j >= tailOffset(count)) {
+            Object[] newTail = tail.clone();
+            newTail[j & MASK] = x;
+            return new PersistentVector<>(count, shift, root, newTail, start, end);
+        }
+        return new PersistentVector<>(count, shift, set(null, shift, root, j, x), tail, start, end);
+    }
+
+    /** The index of the first element in the tail of a trie with count elements. */
+    static int tailOffset(int count) {
+        return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+    }
+
+    /** Returns: the array holding element j of the trie. Requires: j < count. */
+    static Object[] leafFor(TrieNode root, int shift, Object[] tail, int count, int j) {
+        if (j >= tailOffset(count)) return tail;
+        TrieNode n = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            n = (TrieNode) n.array[(j >>> level) & MASK];
+        }
+        return n.array;
+    }
+
+    /** Returns: n, or a copy of n, that transient {@code edit} may change
+     *  in place. A null edit means a persistent update, which always copies.
+     */
+    static TrieNode editable(Object edit, TrieNode n) {
+        if (edit != null && n.edit == edit) return n;
+        return new TrieNode(edit, n.array.clone());
+    }
+
+    /** Returns: the subtrie rooted at n, at the given level, with x at index j. */
+    static TrieNode set(Object edit, int level, TrieNode n, int j, Object x) {
+        TrieNode r = editable(edit, n);
+        if (level == 0) {
+            r.array[j & MASK] = x;
+        } else {
+            int i = (j >>> level) & MASK;
+            r.array[i] = set(edit, level - BITS, (TrieNode) n.array[i], j, x);
+        }
+        return r;
+    }
+
+    /** Returns: a chain of nodes down from the given level ending in leaf. */
+    static TrieNode newPath(Object edit, int level, TrieNode leaf) {
+        if (level == 0) return leaf;
+        TrieNode r = new TrieNode(edit, new Object[WIDTH]);
+        r.array[0] = newPath(edit, level - BITS, leaf);
+        return r;
+    }
+
+    /** Returns: the subtrie rooted at parent, at the given level, with leaf
+     *  added as the leaf after the last one, in a trie holding count
+     *  elements including those of leaf's array.
+     */
+    static TrieNode pushLeaf(Object edit, int count, int level, TrieNode parent, TrieNode leaf) {
+        int i = ((count - 1) >>> level) & MASK;
+        TrieNode r = editable(edit, parent);
+        TrieNode child;
+        if (level == BITS) {
+            child = leaf;
+        } else if (parent.array[i] != null) {
+            child = pushLeaf(edit, count, level - BITS, (TrieNode) parent.array[i], leaf);
+        } else {
+            child = newPath(edit, level - BITS, leaf);
+        }
+        r.array[i] = child;
+        return r;
+    }
+
+    /**
+     * A mutable vector for building a PersistentVector with many updates.
+     * It changes in place the trie nodes it has created, copying only those
+     * shared with persistent vectors, and keeps a full-width tail array to
+     * append to. A transient may not be used after {@code persistent()}.
+     */
+    public static class Transient<T> {
+        Object edit = new Object();
+        int count, shift;
+        TrieNode root;
+        /** Has WIDTH slots, of which elements tailOffset(count)..count-1 are used. */
+        Object[] tail;
+        int start, end;
+
+        Transient(PersistentVector<T> v) {
+            count = v.count;
+            shift = v.shift;
+            root = v.root;
+            tail = Arrays.copyOf(v.tail, WIDTH);
+            start = v.start;
+            end = v.end;
+        }
+
+        public int size() {
+            check();
+            return end - start;
+        }
+
+        /** Returns: the element at index i. Checks: 0 ≤ i < size(). */
+        @SuppressWarnings("unchecked")
+        public T get(int i) {
+            if (i < 0 || i >= size()) throw new IndexOutOfBoundsException(i);
+            int j = start + i;
+            return (T) leafFor(root, shift, tail, count, j)[j & MASK];
+        }
+
+        /** Effect: add x at the end. */
+        public void append(T x) {
+            check();
+            if (end < count) {
+                setTrie(end++, x);
+                return;
+            }
+            if (count - tailOffset(count) < WIDTH) {
+                tail[count & MASK] = x;
+            } else {
+                TrieNode leaf = new TrieNode(edit, tail);
+                tail = new Object[WIDTH];
+                tail[0] = x;
+                if ((count >>> BITS) > (1 << shift)) {
+                    TrieNode newRoot = new TrieNode(edit, new Object[WIDTH]);
+                    newRoot.array[0] = root;
+                    newRoot.array[1] = newPath(edit, shift, leaf);
+                    root = newRoot;
+                    shift += BITS;
+                } else {
+                    root = pushLeaf(edit, count, shift, root, leaf);
+                }
+            }
+            count++;
+            end++;
+        }
+
+        /** Effect: replace the element at index i by x. Checks: 0 ≤ i < size(). */
+        public void update(int i, T x) {
+            if (i < 0 || i >= size()) throw new IndexOutOfBoundsException(i);
+            setTrie(start + i, x);
+        }
+
+        /** Returns: a persistent vector with the transient's contents. */
+        public PersistentVector<T> persistent() {
+            check();
+            edit = null;
+            Object[] t = Arrays.copyOf(tail, count - tailOffset(count));
+            return new PersistentVector<>(count, shift, root, t, start, end);
+        }
+
+        private void setTrie(int j, T x) {
+            if (j >= tailOffset(count)) {
+                tail[j & MASK] = x;
+            } else {
+                root = set(edit, shift, root, j, x);
+            }
+        }
+
+        private void check() {
+            if (edit == null) throw new IllegalStateException("transient used after persistent()");
+        }
+    }
+}
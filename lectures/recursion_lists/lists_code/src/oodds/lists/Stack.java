@@ -0,0 +1,25 @@
+package oodds.lists;
+
+/** A stack stored as a linked list of nodes, with the top at the head.
+ *  Not safe for use by several threads at once; see ConcurrentStack.
+ */
+public class Stack<T> {
+    private Node<T> top;
+
+    public void push(T x) {
+        top = new Node<>(x, top);
+    }
+
+    /** Effect: removes the top element. Returns: that element.
+     *  Checks: the stack is not empty. */
+    public T pop() {
+        if (top == null) throw new IllegalStateException("empty stack");
+        T ret = top.data;
+        top = top.next;
+        return ret;
+    }
+
+    public boolean isEmpty() {
+        return top == null;
+    }
+}
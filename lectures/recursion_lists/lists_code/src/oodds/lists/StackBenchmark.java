@@ -0,0 +1,122 @@
+package oodds.lists;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Compares the throughput of a {@code Stack} protected by a single lock
+ * with that of a {@code ConcurrentStack}, with and without elimination, as
+ * the number of threads grows from 1 to 64. Each thread repeatedly pushes
+ * an element and then pops one.
+ * <p>
+ * With the argument {@code check}, instead runs a correctness check on each
+ * stack: 8 threads push distinct elements and pop concurrently, then the
+ * stack is drained, and every element pushed must have been popped exactly
+ * once. Exits with status 1 if an element was lost or popped twice.
+ * Usage: java oodds.lists.StackBenchmark [max threads] [ops per thread]
+ *        java oodds.lists.StackBenchmark check [ops per thread]
+ */
+public class StackBenchmark {
+    /** The stack operations under test. */
+    interface Ops {
+        void push(Integer x);
+
+        Integer pop();
+    }
+
+    /** Returns: the throughput of s in operations per millisecond. */
+    static double run(Ops s, int threads, int opsPerThread) throws InterruptedException {
+        for (int i = 0; i < 1000; i++) s.push(i);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            Integer x = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < opsPerThread; i++) {
+                    s.push(x);
+                    s.pop();
+                }
+            });
+        }
+        long t0 = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        long t1 = System.nanoTime();
+        return 2.0 * threads * opsPerThread / ((t1 - t0) / 1e6);
+    }
+
+    /**
+     * Effect: have {@code threads} threads each push opsPerThread distinct
+     * elements onto the empty stack s, popping after each push, then pop
+     * whatever remains.
+     * Returns: the number of elements that were not popped exactly once.
+     */
+    static int check(Ops s, int threads, int opsPerThread) throws InterruptedException {
+        AtomicIntegerArray popped = new AtomicIntegerArray(threads * opsPerThread);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int first = t * opsPerThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < opsPerThread; i++) {
+                    s.push(first + i);
+                    Integer x = s.pop();
+                    if (x != null) popped.incrementAndGet(x);
+                }
+            });
+        }
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        for (Integer x = s.pop(); x != null; x = s.pop()) popped.incrementAndGet(x);
+        int bad = 0;
+        for (int i = 0; i < popped.length(); i++) {
+            if (popped.get(i) != 1) bad++;
+        }
+        return bad;
+    }
+
+    static Ops locked() {
+        Stack<Integer> s = new Stack<>();
+        return new Ops() {
+            public void push(Integer x) { synchronized (s) { s.push(x); } }
+            public Integer pop() { synchronized (s) { return s.isEmpty() ? null : s.pop(); } }
+        };
+    }
+
+    static Ops concurrent(int eliminationSlots) {
+        ConcurrentStack<Integer> s = new ConcurrentStack<>(eliminationSlots);
+        return new Ops() {
+            public void push(Integer x) { s.push(x); }
+            public Integer pop() { return s.pop(); }
+        };
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && args[0].equals("check")) {
+            int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+            String[] names = {"locked", "treiber", "eliminate"};
+            Ops[] stacks = {locked(), concurrent(0), concurrent(4)};
+            boolean ok = true;
+            for (int i = 0; i < stacks.length; i++) {
+                int bad = check(stacks[i], 8, ops);
+                System.out.printf("%-10s %s%n", names[i],
+                        bad == 0 ? "ok" : bad + " elements lost or duplicated");
+                ok &= bad == 0;
+            }
+            if (!ok) System.exit(1);
+            return;
+        }
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        System.out.printf("%-8s %14s %14s %16s%n", "threads", "locked ops/ms", "treiber ops/ms",
+                "eliminate ops/ms");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                double locked = run(locked(), threads, ops);
+                double treiber = run(concurrent(0), threads, ops);
+                double eliminate = run(concurrent(Math.max(1, threads / 2)), threads, ops);
+                if (round > 0) {
+                    System.out.printf("%-8d %14.0f %14.0f %16.0f%n", threads, locked, treiber, eliminate);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package oodds.lists;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A mutable list stored as an unrolled linked list: a linked list of
+ * chunks, each holding up to {@code chunkSize} elements in an array. Scans
+ * read consecutive array slots instead of following a pointer per element,
+ * and the per-element memory overhead is a fraction of a node's.
+ * <p>
+ * The elements of a chunk occupy a contiguous range of its array. A chunk
+ * at the front of the list fills from the back, so prepending, like
+ * appending, takes O(1) time. Removing an element shifts the rest of its
+ * chunk, and merges the chunk with the next one if together they fit in
+ * half a chunk, which keeps chunks reasonably full.
+ */
+public class UnrolledList<T> extends AbstractCollection<T> implements MutList<T> {
+    static final int DEFAULT_CHUNK_SIZE = 32;
+
+    static class Chunk {
+        /** The elements are items[start..end-1]; other slots are null. */
+        final Object[] items;
+        int start, end;
+        Chunk next; // may be null
+
+        Chunk(int capacity, int start) {
+            items = new Object[capacity];
+            this.start = end = start;
+        }
+
+        int count() {
+            return end - start;
+        }
+    }
+
+    private final int chunkSize;
+    private Chunk head;
+    // The last chunk in the list. Is null iff head is null.
+    private Chunk last;
+    // invariant: size is the total number of elements in the chunks.
+    private int size;
+
+    public UnrolledList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /** Creates an empty list whose chunks hold up to chunkSize elements.
+     *  Sizes from 16 to 64 work well. Requires: chunkSize ≥ 2.
+     */
+    public UnrolledList(int chunkSize) {
+        if (chunkSize < 2) throw new IllegalArgumentException("chunk size " + chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        Chunk c = head;
+        while (i >= c.count()) {
+            i -= c.count();
+            c = c.next;
+        }
+        return (T) c.items[c.start + i];
+    }
+
+    @Override
+    public void prepend(T x) {
+        if (head == null || head.start == 0) {
+            Chunk c = new Chunk(chunkSize, chunkSize);
+            c.next = head;
+            head = c;
+            if (last == null) last = c;
+        }
+        head.items[--head.start] = x;
+        size++;
+    }
+
+    @Override
+    public void append(T x) {
+        if (last == null || last.end == chunkSize) {
+            Chunk c = new Chunk(chunkSize, 0);
+            if (last == null) head = c;
+            else last.next = c;
+            last = c;
+        }
+        last.items[last.end++] = x;
+        size++;
+    }
+
+    /** Effects: Inserts x at the end of the list. Returns: true. */
+    @Override
+    public boolean add(T x) {
+        append(x);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object x) {
+        for (Chunk c = head, p = null; c != null; p = c, c = c.next) {
+            for (int i = c.start; i < c.end; i++) {
+                if (Objects.equals(x, c.items[i])) {
+                    removeAt(p, c, i);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object x) {
+        for (Chunk c = head; c != null; c = c.next) {
+            for (int i = c.start; i < c.end; i++) {
+                if (Objects.equals(x, c.items[i])) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        head = last = null;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (Chunk c = head; c != null; c = c.next) {
+            for (int i = c.start; i < c.end; i++) action.accept((T) c.items[i]);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int n = 0;
+        for (Chunk c = head; c != null; c = c.next) {
+            System.arraycopy(c.items, c.start, result, n, c.count());
+            n += c.count();
+        }
+        return result;
+    }
+
+    /**
+     * Effect: remove items[i] from chunk c, whose predecessor is p (null if c
+     * is the head). The elements of c keep their offsets from c.start up to
+     * i, and those after i move down by one.
+     * Returns: whether c was unlinked from the list because it became empty.
+     */
+    private boolean removeAt(Chunk p, Chunk c, int i) {
+        System.arraycopy(c.items, i + 1, c.items, i, c.end - i - 1);
+        c.items[--c.end] = null;
+        size--;
+        if (c.count() == 0) {
+            if (p == null) head = c.next;
+            else p.next = c.next;
+            if (c == last) last = p;
+            return true;
+        }
+        Chunk n = c.next;
+        if (n != null && c.count() + n.count() <= chunkSize / 2) {
+            // move c's elements to the front of its array, then append n's
+            int k = c.count();
+            System.arraycopy(c.items, c.start, c.items, 0, k);
+            Arrays.fill(c.items, Math.max(k, c.start), c.end, null);
+            System.arraycopy(n.items, n.start, c.items, k, n.count());
+            c.start = 0;
+            c.end = k + n.count();
+            c.next = n.next;
+            if (n == last) last = c;
+        }
+        return false;
+    }
+
+    /** Returns: an iterator over the elements in order, which supports remove(). */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            /** The chunk holding the next element, and its predecessor. */
+            Chunk chunk = head, prev;
+            /** The offset of the next element from chunk.start. */
+            int offset;
+            boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk != null && offset == chunk.count()) {
+                    prev = chunk;
+                    chunk = chunk.next;
+                    offset = 0;
+                }
+                return chunk != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                canRemove = true;
+                return (T) chunk.items[chunk.start + offset++];
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) throw new IllegalStateException();
+                canRemove = false;
+                offset--;
+                if (removeAt(prev, chunk, chunk.start + offset)) {
+                    chunk = (prev == null) ? head : prev.next;
+                    offset = 0;
+                }
+            }
+        };
+    }
+}
@@ -9,3 +9,9 @@ class ListTreeNode<T> {
     T data;
     LinkedList<ListTreeNode<T>> children;
 }
+
+/* Tree node with a link to its first child and one to its next sibling */
+class SiblingTreeNode<T> {
+    T data;
+    SiblingTreeNode<T> firstChild, nextSibling;
+}
@@ -1,6 +1,9 @@
-/** Apply the method visit() to every node in the tree, using an in-order traversal. */
+/** Apply the method visit() to every node in the tree whose data x satisfies
+ *  bottom <= x <= top, using an in-order traversal. Subtrees that lie
+ *  entirely outside the range are not traversed.
+ */
 void visitRange(T bottom, T top, Comparator<T> cmp) {
-    if (left != null && cmp.compare() left.traverse();
-    visit(data);
-    if (right != null) right.traverse();
+    if (left != null && cmp.compare(bottom, data) < 0) left.visitRange(bottom, top, cmp);
+    if (cmp.compare(bottom, data) <= 0 && cmp.compare(data, top) <= 0) visit(data);
+    if (right != null && cmp.compare(data, top) < 0) right.visitRange(bottom, top, cmp);
 }
@@ -0,0 +1,94 @@
+package oodds.trees;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An n-ary tree whose nodes store their children in an array, as in
+ * {@code ArrayTreeNode} in the lecture notes. Each node with children pays
+ * for an array header in addition to the node itself.
+ */
+public class ArrayTree<T> implements NaryTree<T> {
+    static class Node<T> {
+        T data;
+        /** The children, in order, or null if there are none. */
+        Node<T>[] children;
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    Node<T> root;
+    int size;
+
+    /** Creates the tree with node data {@code data} and the given parent
+     *  array, as described in {@code NaryTree}.
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayTree(T[] data, int[] parent) {
+        size = data.length;
+        if (size == 0) return;
+        Node<T>[] nodes = (Node<T>[]) new Node<?>[size];
+        int[] degree = new int[size];
+        for (int i = 0; i < size; i++) nodes[i] = new Node<>(data[i]);
+        for (int i = 1; i < size; i++) degree[parent[i]]++;
+        for (int i = 0; i < size; i++) {
+            if (degree[i] > 0) nodes[i].children = (Node<T>[]) new Node<?>[degree[i]];
+        }
+        Arrays.fill(degree, 0);
+        for (int i = 1; i < size; i++) {
+            Node<T> p = nodes[parent[i]];
+            p.children[degree[parent[i]]++] = nodes[i];
+        }
+        root = nodes[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void preorder(Consumer<? super T> visit) {
+        walk(visit, null);
+    }
+
+    @Override
+    public void postorder(Consumer<? super T> visit) {
+        walk(null, visit);
+    }
+
+    /**
+     * Effect: traverse the tree depth-first, applying {@code pre} to each
+     * node when it is reached and {@code post} when its children are done,
+     * unless they are null. The stack records the path to the current node
+     * and, for each node on it, the index of its next child to visit.
+     */
+    @SuppressWarnings("unchecked")
+    private void walk(Consumer<? super T> pre, Consumer<? super T> post) {
+        if (root == null) return;
+        Node<T>[] stack = (Node<T>[]) new Node<?>[16];
+        int[] next = new int[16];
+        int top = 0;
+        stack[top] = root;
+        next[top++] = 0;
+        if (pre != null) pre.accept(root.data);
+        while (top > 0) {
+            Node<T> n = stack[top - 1];
+            if (n.children != null && next[top - 1] < n.children.length) {
+                Node<T> c = n.children[next[top - 1]++];
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * top);
+                    next = Arrays.copyOf(next, 2 * top);
+                }
+                stack[top] = c;
+                next[top++] = 0;
+                if (pre != null) pre.accept(c.data);
+            } else {
+                top--;
+                if (post != null) post.accept(n.data);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package oodds.trees;
+
+/** A node of a binary tree. */
+class BinaryNode<T> {
+    T data;
+    /** Invariant: {@code left} and {@code right} are the roots of subtrees,
+     *  where all data in the left subtree are less than {@code data},
+     *  according to some ordering on T, and all data in the right subtree
+     *  are greater than {@code data}.
+     *  The value {@code null} represents an empty subtree.
+     */
+    BinaryNode<T> left, right;
+    /** The height of the subtree rooted at this node. Maintained in AVL mode. */
+    int height;
+    /** A random priority, which is no greater than the parent's. Used in treap mode. */
+    int priority;
+    /** The number of nodes in the subtree rooted at this node. Maintained if
+     *  the tree records subtree sizes.
+     */
+    int count = 1;
+
+    BinaryNode(T data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,579 @@
+package oodds.trees;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of elements stored in a binary search tree. The tree may be kept
+ * balanced in one of two ways, chosen when the tree is created: as an AVL
+ * tree, or as a treap. Without balancing, adding elements in sorted order
+ * makes the tree a linked list.
+ * <p>
+ * Optionally, each node also records the size of its subtree, so that
+ * counting the elements in a range, finding the element of a given rank,
+ * and finding the rank of an element all take time proportional to the
+ * height of the tree.
+ */
+public class BinarySearchTree<T> implements Iterable<T> {
+    /** Converts elements to and from bytes, for {@code writeTo} and {@code readFrom}. */
+    public interface Codec<T> {
+        void write(T x, DataOutput out) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    /** How the tree is kept balanced. */
+    public enum Mode {
+        /** No balancing. */
+        UNBALANCED,
+        /** AVL tree: the heights of the two subtrees of each node differ by at most one. */
+        AVL,
+        /** Treap: nodes have random priorities and form a heap by priority. */
+        TREAP
+    }
+
+    BinaryNode<T> root;
+    Comparator<? super T> cmp;
+    Mode mode;
+    /** Whether nodes record the sizes of their subtrees. */
+    boolean countSizes;
+    int size;
+    /** The source of treap priorities. */
+    Random random = new Random();
+
+    public BinarySearchTree(Comparator<? super T> cmp, Mode mode) {
+        this(cmp, mode, false);
+    }
+
+    /** Creates an empty tree. If {@code countSizes} is true, each node records
+     *  the size of its subtree.
+     */
+    public BinarySearchTree(Comparator<? super T> cmp, Mode mode, boolean countSizes) {
+        this.cmp = cmp;
+        this.mode = mode;
+        this.countSizes = countSizes;
+    }
+
+    public BinarySearchTree(Comparator<? super T> cmp) {
+        this(cmp, Mode.UNBALANCED);
+    }
+
+    /**
+     * Returns: a perfectly balanced tree containing the elements of a.
+     * Requires: a is strictly increasing according to cmp.
+     * Takes O(n) time and compares no elements.
+     */
+    public static <T> BinarySearchTree<T> fromSorted(Comparator<? super T> cmp, Mode mode,
+                                                     boolean countSizes, T[] a) {
+        return fromSorted(cmp, mode, countSizes, Arrays.asList(a).iterator(), a.length);
+    }
+
+    /**
+     * Returns: a perfectly balanced tree containing the next n elements
+     * produced by {@code elements}. Requires: they are strictly increasing
+     * according to cmp. Takes O(n) time and compares no elements; the
+     * elements are consumed one at a time, without buffering them.
+     */
+    public static <T> BinarySearchTree<T> fromSorted(Comparator<? super T> cmp, Mode mode,
+                                                     boolean countSizes,
+                                                     Iterator<? extends T> elements, int n) {
+        BinarySearchTree<T> t = new BinarySearchTree<>(cmp, mode, countSizes);
+        t.root = t.build(elements, n);
+        t.size = n;
+        if (mode == Mode.TREAP) t.assignPriorities(t.root, 0);
+        return t;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Returns: whether x is in the tree. */
+    public boolean contains(T x) {
+        BinaryNode<T> n = root;
+        while (n != null) {
+            int c = cmp.compare(x, n.data);
+            if (c == 0) return true;
+            n = (c < 0) ? n.left : n.right;
+        }
+        return false;
+    }
+
+    /** Add element x to the tree, unless it is already there.
+     *  Return true if the element was added, false if it was already there.
+     */
+    public boolean add(T x) {
+        int oldSize = size;
+        if (mode == Mode.UNBALANCED) {
+            addUnbalanced(x);
+        } else {
+            root = add(root, x);
+        }
+        return size != oldSize;
+    }
+
+    /** Remove element x from the tree, if it is there.
+     *  Return true if the element was removed.
+     */
+    public boolean remove(T x) {
+        // Descend iteratively, recording the path, since an unbalanced tree
+        // may be too deep to recurse over.
+        @SuppressWarnings("unchecked")
+        BinaryNode<T>[] path = (BinaryNode<T>[]) new BinaryNode<?>[16];
+        int depth = 0;
+        BinaryNode<T> n = root;
+        while (n != null) {
+            int c = cmp.compare(x, n.data);
+            if (c == 0) break;
+            if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+            path[depth++] = n;
+            n = (c < 0) ? n.left : n.right;
+        }
+        if (n == null) return false;
+        BinaryNode<T> removed = n, replacement;
+        if (mode == Mode.TREAP) {
+            replacement = join(n.left, n.right);
+        } else if (n.left == null || n.right == null) {
+            replacement = (n.left == null) ? n.right : n.left;
+        } else {
+            // replace n's data with its successor's, and splice out the successor
+            if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+            path[depth++] = n;
+            removed = n.right;
+            while (removed.left != null) {
+                if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+                path[depth++] = removed;
+                removed = removed.left;
+            }
+            n.data = removed.data;
+            replacement = removed.right;
+        }
+        size--;
+        // Reattach the changed subtree to each node on the path, bottom up,
+        // restoring heights, sizes and (in an AVL tree) balance.
+        BinaryNode<T> old = removed, sub = replacement;
+        while (depth > 0) {
+            BinaryNode<T> p = path[--depth];
+            if (p.left == old) p.left = sub;
+            else p.right = sub;
+            old = p;
+            sub = (mode == Mode.AVL) ? rebalance(p) : update(p);
+        }
+        root = sub;
+        return true;
+    }
+
+    /** Returns: an iterator over the elements in increasing order. */
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator<>(root, TreeIterator.Order.INORDER);
+    }
+
+    /** Returns: an iterator over the elements of the tree in the given order. */
+    public TreeIterator<T> iterator(TreeIterator.Order order) {
+        return new TreeIterator<>(root, order);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /** Returns: a stream of the elements in increasing order. */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Effect: write the elements to out in increasing order, preceded by
+     * their number. Balancing information is not written, since
+     * {@code readFrom} rebuilds a perfectly balanced tree.
+     */
+    public void writeTo(DataOutput out, Codec<? super T> codec) throws IOException {
+        out.writeInt(size);
+        for (TreeIterator<T> it = iterator(TreeIterator.Order.INORDER); it.hasNext();) {
+            codec.write(it.next(), out);
+        }
+    }
+
+    /**
+     * Returns: a perfectly balanced tree of the elements written by
+     * {@code writeTo}. Takes time linear in the number of elements, and
+     * compares none of them.
+     */
+    public static <T> BinarySearchTree<T> readFrom(DataInput in, Codec<? extends T> codec,
+                                                   Comparator<? super T> cmp, Mode mode,
+                                                   boolean countSizes) throws IOException {
+        int n = in.readInt();
+        if (n < 0) throw new IOException("bad element count " + n);
+        Iterator<T> elements = new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return codec.read(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        try {
+            return fromSorted(cmp, mode, countSizes, elements, n);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns: an iterator over the elements x with bottom <= x <= top, in
+     * increasing order. Subtrees entirely outside the range are never
+     * visited, so iterating over k elements takes O(h + k) time, where h is
+     * the height of the tree.
+     */
+    public Iterator<T> iterateRange(T bottom, T top) {
+        return new RangeIterator(bottom, top);
+    }
+
+    /** Apply {@code visit} to every element x with bottom <= x <= top,
+     *  in increasing order.
+     */
+    public void visitRange(T bottom, T top, Consumer<? super T> visit) {
+        iterateRange(bottom, top).forEachRemaining(visit);
+    }
+
+    /**
+     * Returns: the number of elements x with bottom <= x <= top. Takes O(h)
+     * time if nodes record subtree sizes, and O(h + k) otherwise, where k
+     * is the result.
+     */
+    public int countRange(T bottom, T top) {
+        if (cmp.compare(bottom, top) > 0) return 0;
+        if (countSizes) return countBelow(top, true) - countBelow(bottom, false);
+        int k = 0;
+        for (Iterator<T> i = iterateRange(bottom, top); i.hasNext(); i.next()) k++;
+        return k;
+    }
+
+    /** Returns: the number of elements less than x. */
+    public int rank(T x) {
+        if (countSizes) return countBelow(x, false);
+        int k = 0;
+        for (T y : this) {
+            if (cmp.compare(y, x) >= 0) break;
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Returns: the element with k smaller elements in the tree.
+     * Requires: 0 <= k < size().
+     */
+    public T kthSmallest(int k) {
+        if (k < 0 || k >= size) throw new IndexOutOfBoundsException(k);
+        if (!countSizes) {
+            Iterator<T> i = iterator();
+            for (int j = 0; j < k; j++) i.next();
+            return i.next();
+        }
+        BinaryNode<T> n = root;
+        while (true) {
+            int l = count(n.left);
+            if (k == l) return n.data;
+            if (k < l) {
+                n = n.left;
+            } else {
+                k -= l + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /** Returns: the number of elements less than x, or less than or equal
+     *  to x if {@code inclusive}. Requires: countSizes.
+     */
+    private int countBelow(T x, boolean inclusive) {
+        int k = 0;
+        BinaryNode<T> n = root;
+        while (n != null) {
+            int c = cmp.compare(n.data, x);
+            if (c < 0 || c == 0 && inclusive) {
+                k += count(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return k;
+    }
+
+    /** An in-order iterator over the elements in a range, which prunes
+     *  subtrees outside the range.
+     */
+    class RangeIterator implements Iterator<T> {
+        final T top;
+        /** The nodes in the range whose right subtrees are still to be visited. */
+        BinaryNode<T>[] stack;
+        int depth;
+
+        @SuppressWarnings("unchecked")
+        RangeIterator(T bottom, T top) {
+            this.top = top;
+            stack = (BinaryNode<T>[]) new BinaryNode<?>[16];
+            // push the path to the smallest element >= bottom, skipping
+            // nodes below the range and their left subtrees
+            BinaryNode<T> n = root;
+            while (n != null) {
+                if (cmp.compare(n.data, bottom) >= 0) {
+                    push(n);
+                    n = n.left;
+                } else {
+                    n = n.right;
+                }
+            }
+            prune();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public T next() {
+            if (depth == 0) throw new NoSuchElementException();
+            BinaryNode<T> n = stack[--depth];
+            for (BinaryNode<T> m = n.right; m != null; m = m.left) push(m);
+            prune();
+            return n.data;
+        }
+
+        /** Effect: empty the stack if its top is above the range, since every
+         *  remaining node is then above the range too.
+         */
+        private void prune() {
+            if (depth > 0 && cmp.compare(stack[depth - 1].data, top) > 0) depth = 0;
+        }
+
+        private void push(BinaryNode<T> n) {
+            if (depth == stack.length) stack = Arrays.copyOf(stack, 2 * depth);
+            stack[depth++] = n;
+        }
+    }
+
+    /** Returns: the height of the tree, which is -1 for an empty tree. */
+    public int height() {
+        return height(root);
+    }
+
+    /** The height of the subtree rooted at n, computed by a level-order
+     *  traversal, since an unbalanced tree may be too deep to recurse over.
+     */
+    private static int height(BinaryNode<?> n) {
+        int height = -1;
+        ArrayDeque<BinaryNode<?>> level = new ArrayDeque<>();
+        if (n != null) level.add(n);
+        while (!level.isEmpty()) {
+            height++;
+            for (int k = level.size(); k > 0; k--) {
+                BinaryNode<?> m = level.remove();
+                if (m.left != null) level.add(m.left);
+                if (m.right != null) level.add(m.right);
+            }
+        }
+        return height;
+    }
+
+    /** Build a perfectly balanced subtree from the next n elements, in order.
+     *  Returns: its root.
+     */
+    private BinaryNode<T> build(Iterator<? extends T> elements, int n) {
+        if (n == 0) return null;
+        int leftSize = (n - 1) / 2;
+        BinaryNode<T> left = build(elements, leftSize);
+        BinaryNode<T> node = new BinaryNode<>(elements.next());
+        node.left = left;
+        node.right = build(elements, n - 1 - leftSize);
+        return update(node);
+    }
+
+    /**
+     * Effect: give the nodes of the subtree n, at the given depth, random
+     * treap priorities. In a treap with random priorities, about 2^d of the
+     * n nodes with highest priority lie at depth d or above, so the nodes at
+     * depth d get priorities drawn from that slice of the range of ints.
+     * Deeper nodes get lower priorities, which makes the priorities a heap.
+     */
+    private void assignPriorities(BinaryNode<T> n, int depth) {
+        if (n == null) return;
+        double from = Math.min(1.0, ((1L << depth) - 1) / (double) size);
+        double to = Math.min(1.0, ((1L << (depth + 1)) - 1) / (double) size);
+        double q = from + random.nextDouble() * (to - from);
+        n.priority = (int) (Integer.MAX_VALUE - (long) (q * 0xFFFFFFFFL));
+        assignPriorities(n.left, depth + 1);
+        assignPriorities(n.right, depth + 1);
+    }
+
+    /** Add x without balancing. Iterative, since the tree may be deep. */
+    private void addUnbalanced(T x) {
+        if (countSizes && contains(x)) return;
+        if (root == null) {
+            root = new BinaryNode<>(x);
+            size++;
+            return;
+        }
+        BinaryNode<T> n = root;
+        while (true) {
+            int c = cmp.compare(x, n.data);
+            if (c == 0) return;
+            if (countSizes) n.count++;
+            if (c < 0) {
+                if (n.left == null) {
+                    n.left = new BinaryNode<>(x);
+                    break;
+                }
+                n = n.left;
+            } else {
+                if (n.right == null) {
+                    n.right = new BinaryNode<>(x);
+                    break;
+                }
+                n = n.right;
+            }
+        }
+        size++;
+    }
+
+    /** Add x to the subtree rooted at n. Returns: the new root of the subtree. */
+    private BinaryNode<T> add(BinaryNode<T> n, T x) {
+        if (n == null) {
+            size++;
+            BinaryNode<T> leaf = new BinaryNode<>(x);
+            leaf.priority = random.nextInt();
+            return leaf;
+        }
+        int c = cmp.compare(x, n.data);
+        if (c == 0) return n;
+        if (c < 0) {
+            n.left = add(n.left, x);
+            if (mode == Mode.TREAP && n.left.priority > n.priority) return rotateRight(n);
+        } else {
+            n.right = add(n.right, x);
+            if (mode == Mode.TREAP && n.right.priority > n.priority) return rotateLeft(n);
+        }
+        return mode == Mode.AVL ? rebalance(n) : update(n);
+    }
+
+    /**
+     * Returns: the treap formed from treaps a and b, where every element of a
+     * is less than every element of b. The root of higher priority stays on
+     * top, and the rest of its treap is joined with the other one, along
+     * the right spine of a and the left spine of b. Iterative, since the
+     * spines may be long.
+     */
+    private BinaryNode<T> join(BinaryNode<T> a, BinaryNode<T> b) {
+        @SuppressWarnings("unchecked")
+        BinaryNode<T>[] path = (BinaryNode<T>[]) new BinaryNode<?>[16];
+        int depth = 0;
+        BinaryNode<T> result = null, last = null; // the last node placed
+        boolean lastFromA = false;
+        while (a != null || b != null) {
+            boolean fromA = (b == null) || (a != null && a.priority > b.priority);
+            BinaryNode<T> top = fromA ? a : b;
+            if (last == null) result = top;
+            else if (lastFromA) last.right = top;
+            else last.left = top;
+            if (a == null || b == null) break; // the rest is left intact
+            if (depth == path.length) path = Arrays.copyOf(path, 2 * depth);
+            path[depth++] = top;
+            if (fromA) a = a.right;
+            else b = b.left;
+            last = top;
+            lastFromA = fromA;
+        }
+        while (depth > 0) update(path[--depth]);
+        return result;
+    }
+
+    /** The stored height of n, or -1 if n is null. */
+    private static int h(BinaryNode<?> n) {
+        return n == null ? -1 : n.height;
+    }
+
+    /** The stored subtree size of n, or 0 if n is null. */
+    private static int count(BinaryNode<?> n) {
+        return n == null ? 0 : n.count;
+    }
+
+    /** Effect: recompute the height and, if recorded, the subtree size of n
+     *  from those of its children. Returns: n.
+     */
+    private BinaryNode<T> update(BinaryNode<T> n) {
+        n.height = 1 + Math.max(h(n.left), h(n.right));
+        if (countSizes) n.count = 1 + count(n.left) + count(n.right);
+        return n;
+    }
+
+    /**
+     * Restore the AVL invariant at n, assuming it holds in both subtrees
+     * and their heights differ by at most two. Handles the LL, LR, RR and RL
+     * cases, which arise after both insertions and deletions.
+     * Returns: the new root of the subtree.
+     */
+    private BinaryNode<T> rebalance(BinaryNode<T> n) {
+        int balance = h(n.left) - h(n.right);
+        if (balance > 1) {
+            if (h(n.left.left) < h(n.left.right)) { // LR case
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n); // LL case
+        }
+        if (balance < -1) {
+            if (h(n.right.right) < h(n.right.left)) { // RL case
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n); // RR case
+        }
+        return update(n);
+    }
+
+    /** Right rotation: the left child y of x becomes the root. Returns: y. */
+    private BinaryNode<T> rotateRight(BinaryNode<T> x) {
+        BinaryNode<T> y = x.left;
+        x.left = y.right;
+        y.right = x;
+        update(x);
+        return update(y);
+    }
+
+    /** Left rotation: the right child y of x becomes the root. Returns: y. */
+    private BinaryNode<T> rotateLeft(BinaryNode<T> x) {
+        BinaryNode<T> y = x.right;
+        x.right = y.left;
+        y.left = x;
+        update(x);
+        return update(y);
+    }
+}
@@ -0,0 +1,107 @@
+package oodds.trees;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An n-ary tree stored as a struct of arrays. Nodes are numbered
+ * 0..size-1, with node 0 the root, and the links of node i are
+ * {@code parent[i]}, {@code firstChild[i]} and {@code nextSibling[i]},
+ * where {@code NONE} means there is no such node. There is no object per
+ * node: a node costs one data reference and three ints, and traversals
+ * follow the links without needing a stack.
+ */
+public class FlatTree<T> implements NaryTree<T> {
+    /** The index meaning "no node". */
+    public static final int NONE = -1;
+
+    Object[] data;
+    int[] parent, firstChild, nextSibling;
+
+    /** Creates the tree with node data {@code data} and the given parent
+     *  array, as described in {@code NaryTree}. Node i of the tree is node
+     *  i of the description.
+     */
+    public FlatTree(T[] data, int[] parent) {
+        int n = data.length;
+        this.data = Arrays.copyOf(data, n, Object[].class);
+        this.parent = new int[n];
+        firstChild = new int[n];
+        nextSibling = new int[n];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        if (n > 0) this.parent[0] = NONE;
+        // Adding children in decreasing order of index, each at the front of
+        // its parent's list, leaves every list in increasing order.
+        for (int i = n - 1; i > 0; i--) {
+            int p = parent[i];
+            this.parent[i] = p;
+            nextSibling[i] = firstChild[p];
+            firstChild[p] = i;
+        }
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    /** Returns: the datum of node i. */
+    @SuppressWarnings("unchecked")
+    public T data(int i) {
+        return (T) data[i];
+    }
+
+    /** Returns: the parent of node i, or NONE if i is the root. */
+    public int parent(int i) {
+        return parent[i];
+    }
+
+    /** Returns: the first child of node i, or NONE if it is a leaf. */
+    public int firstChild(int i) {
+        return firstChild[i];
+    }
+
+    /** Returns: the next sibling of node i, or NONE if it is the last child. */
+    public int nextSibling(int i) {
+        return nextSibling[i];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void preorder(Consumer<? super T> visit) {
+        int n = data.length == 0 ? NONE : 0;
+        while (n != NONE) {
+            visit.accept((T) data[n]);
+            if (firstChild[n] != NONE) {
+                n = firstChild[n];
+            } else {
+                // climb until some ancestor-or-self has a next sibling
+                while (n != NONE && nextSibling[n] == NONE) n = parent[n];
+                if (n != NONE) n = nextSibling[n];
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void postorder(Consumer<? super T> visit) {
+        if (data.length == 0) return;
+        int n = leftmostLeaf(0);
+        while (true) {
+            visit.accept((T) data[n]);
+            if (nextSibling[n] != NONE) {
+                n = leftmostLeaf(nextSibling[n]);
+            } else {
+                n = parent[n];
+                if (n == NONE) return;
+            }
+        }
+    }
+
+    /** Returns: the first node of the subtree rooted at n in postorder. */
+    private int leftmostLeaf(int n) {
+        while (firstChild[n] != NONE) n = firstChild[n];
+        return n;
+    }
+}
@@ -0,0 +1,86 @@
+package oodds.trees;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+
+/**
+ * An n-ary tree whose nodes store their children in a {@code LinkedList},
+ * as in {@code ListTreeNode} in the lecture notes. Each node pays for a list
+ * object, and each edge for a list entry, in addition to the node itself.
+ */
+public class ListTree<T> implements NaryTree<T> {
+    static class Node<T> {
+        T data;
+        LinkedList<Node<T>> children = new LinkedList<>();
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    Node<T> root;
+    int size;
+
+    /** Creates the tree with node data {@code data} and the given parent
+     *  array, as described in {@code NaryTree}.
+     */
+    @SuppressWarnings("unchecked")
+    public ListTree(T[] data, int[] parent) {
+        size = data.length;
+        if (size == 0) return;
+        Node<T>[] nodes = (Node<T>[]) new Node<?>[size];
+        for (int i = 0; i < size; i++) nodes[i] = new Node<>(data[i]);
+        for (int i = 1; i < size; i++) nodes[parent[i]].children.add(nodes[i]);
+        root = nodes[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void preorder(Consumer<? super T> visit) {
+        walk(visit, null);
+    }
+
+    @Override
+    public void postorder(Consumer<? super T> visit) {
+        walk(null, visit);
+    }
+
+    /**
+     * Effect: traverse the tree depth-first, applying {@code pre} to each
+     * node when it is reached and {@code post} when its children are done,
+     * unless they are null. The stack records the path to the current node
+     * and, for each node on it, an iterator over its remaining children.
+     */
+    @SuppressWarnings("unchecked")
+    private void walk(Consumer<? super T> pre, Consumer<? super T> post) {
+        if (root == null) return;
+        Node<T>[] stack = (Node<T>[]) new Node<?>[16];
+        Iterator<Node<T>>[] next = (Iterator<Node<T>>[]) new Iterator<?>[16];
+        int top = 0;
+        stack[top] = root;
+        next[top++] = root.children.iterator();
+        if (pre != null) pre.accept(root.data);
+        while (top > 0) {
+            Node<T> n = stack[top - 1];
+            if (next[top - 1].hasNext()) {
+                Node<T> c = next[top - 1].next();
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * top);
+                    next = Arrays.copyOf(next, 2 * top);
+                }
+                stack[top] = c;
+                next[top++] = c.children.iterator();
+                if (pre != null) pre.accept(c.data);
+            } else {
+                next[--top] = null;
+                if (post != null) post.accept(n.data);
+            }
+        }
+    }
+}
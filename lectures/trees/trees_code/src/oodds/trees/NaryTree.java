@@ -0,0 +1,30 @@
+package oodds.trees;
+
+import java.util.function.Consumer;
+
+/**
+ * A rooted tree in which each node has a datum and any number of children,
+ * in order. Implementations differ in how they store the children:
+ * {@code ArrayTree} keeps an array of children in each node,
+ * {@code ListTree} a linked list, {@code SiblingTree} a link to the first
+ * child and one to the next sibling, and {@code FlatTree} stores the same
+ * links as indices into parallel arrays, with no object per node.
+ * <p>
+ * Each implementation can be built from a parent array: node 0 is the
+ * root, {@code parent[i] < i} is the parent of node i for i > 0, and the
+ * children of a node are in increasing order of index.
+ */
+public interface NaryTree<T> {
+    /** Returns: the number of nodes. */
+    int size();
+
+    /** Effect: apply {@code visit} to the datum of every node, each node
+     *  before its children.
+     */
+    void preorder(Consumer<? super T> visit);
+
+    /** Effect: apply {@code visit} to the datum of every node, each node
+     *  after its children.
+     */
+    void postorder(Consumer<? super T> visit);
+}
@@ -0,0 +1,79 @@
+package oodds.trees;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Compares the n-ary tree layouts on the same random tree, whose internal
+ * nodes have 3 children on average, reporting the memory used per node
+ * (excluding the data themselves, which all layouts share) and the time
+ * for a preorder and a postorder traversal.
+ * Usage: java oodds.trees.NaryTreeBenchmark [size]
+ */
+public class NaryTreeBenchmark {
+    static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** Returns: the parent array of a random tree with n nodes, numbered in
+     *  breadth-first order. Each node has 1 to 5 children with equal
+     *  probability, until the nodes run out.
+     */
+    static int[] randomParents(int n, Random r) {
+        int[] parent = new int[n];
+        int next = 1;
+        for (int p = 0; next < n; p++) {
+            for (int k = 1 + r.nextInt(5); k > 0 && next < n; k--) parent[next++] = p;
+        }
+        return parent;
+    }
+
+    /** Sums the data visited, so that traversals cannot be optimized away. */
+    static long sum;
+
+    static void add(Integer x) {
+        sum += x;
+    }
+
+    /**
+     * Builds a tree with the given layout and measures it. Each layout is
+     * measured in its own call, so no earlier tree is still reachable when
+     * the memory in use is sampled.
+     * Returns: the bytes per node and traversal times, formatted as a row.
+     */
+    static String measure(BiFunction<Integer[], int[], NaryTree<Integer>> layout,
+                          Integer[] data, int[] parent) {
+        long before = usedMemory();
+        NaryTree<Integer> t = layout.apply(data, parent);
+        long bytes = usedMemory() - before;
+        long t0 = System.nanoTime();
+        for (int k = 0; k < 5; k++) t.preorder(NaryTreeBenchmark::add);
+        long t1 = System.nanoTime();
+        for (int k = 0; k < 5; k++) t.postorder(NaryTreeBenchmark::add);
+        long t2 = System.nanoTime();
+        return String.format("%10.1f %12.1f %12.1f", (double) bytes / t.size(),
+                (t1 - t0) / 5e6, (t2 - t1) / 5e6);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] data = new Integer[n];
+        for (int i = 0; i < n; i++) data[i] = i;
+        int[] parent = randomParents(n, new Random(1));
+        String[] names = {"ArrayTree", "ListTree", "SiblingTree", "FlatTree"};
+        List<BiFunction<Integer[], int[], NaryTree<Integer>>> layouts =
+                List.of(ArrayTree::new, ListTree::new, SiblingTree::new, FlatTree::new);
+
+        System.out.printf("%-12s %10s %12s %12s%n", "layout", "bytes/node", "preorder ms", "postorder ms");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            for (int i = 0; i < layouts.size(); i++) {
+                String row = measure(layouts.get(i), data, parent);
+                if (round > 0) System.out.printf("%-12s %s%n", names[i], row);
+            }
+        }
+        if (sum == 42) System.out.println();
+    }
+}
@@ -0,0 +1,280 @@
+package oodds.trees;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of elements stored in an AVL tree. Adding or removing an
+ * element does not change the tree; it returns a new tree. Only the nodes
+ * on the path from the root to the change are copied, and the rest are
+ * shared with the old tree, so updates take O(log n) time and space, and
+ * keeping a snapshot of a tree costs nothing.
+ * <p>
+ * To build a tree with many updates, a {@code Builder} applies updates in
+ * place to the nodes it has created itself, copying only nodes that are
+ * shared with some existing tree.
+ */
+public class PersistentTree<T> implements Iterable<T> {
+    static class Node<T> {
+        T data;
+        Node<T> left, right;
+        int height;
+        /** The builder allowed to change this node in place, or null if none is. */
+        Object edit;
+
+        Node(T data, Node<T> left, Node<T> right, Object edit) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.edit = edit;
+            height = 1 + Math.max(h(left), h(right));
+        }
+    }
+
+    final Node<T> root;
+    final Comparator<? super T> cmp;
+    final int size;
+
+    PersistentTree(Node<T> root, Comparator<? super T> cmp, int size) {
+        this.root = root;
+        this.cmp = cmp;
+        this.size = size;
+    }
+
+    /** Returns: an empty tree ordered by cmp. */
+    public static <T> PersistentTree<T> empty(Comparator<? super T> cmp) {
+        return new PersistentTree<>(null, cmp, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T x) {
+        Node<T> n = root;
+        while (n != null) {
+            int c = cmp.compare(x, n.data);
+            if (c == 0) return true;
+            n = (c < 0) ? n.left : n.right;
+        }
+        return false;
+    }
+
+    /** Returns: a tree containing the elements of this one and x. */
+    public PersistentTree<T> add(T x) {
+        Editor<T> e = new Editor<>(cmp, null);
+        Node<T> r = e.add(root, x);
+        return e.changed ? new PersistentTree<>(r, cmp, size + 1) : this;
+    }
+
+    /** Returns: a tree containing the elements of this one except x. */
+    public PersistentTree<T> remove(T x) {
+        Editor<T> e = new Editor<>(cmp, null);
+        Node<T> r = e.remove(root, x);
+        return e.changed ? new PersistentTree<>(r, cmp, size - 1) : this;
+    }
+
+    /** Returns: a builder whose initial contents are the elements of this tree. */
+    public Builder<T> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    /** Returns: an iterator over the elements in increasing order. */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+            {
+                pushLeft(root);
+            }
+
+            void pushLeft(Node<T> n) {
+                for (; n != null; n = n.left) stack.push(n);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node<T> n = stack.pop();
+                pushLeft(n.right);
+                return n.data;
+            }
+        };
+    }
+
+    /**
+     * A mutable set that starts with the contents of a tree and produces a
+     * new tree. Updates change nodes in place when the builder created them,
+     * which makes bulk loading much cheaper than a series of persistent
+     * updates. A builder may not be used after {@code build()}.
+     */
+    public static class Builder<T> {
+        Editor<T> editor;
+        Node<T> root;
+        int size;
+
+        Builder(PersistentTree<T> t) {
+            editor = new Editor<>(t.cmp, new Object());
+            root = t.root;
+            size = t.size;
+        }
+
+        /** Effect: add x. Returns: whether it was not already there.
+         *  Requires: build() has not been called.
+         */
+        public boolean add(T x) {
+            Editor<T> e = editor();
+            e.changed = false;
+            root = e.add(root, x);
+            if (e.changed) size++;
+            return e.changed;
+        }
+
+        /** Effect: remove x. Returns: whether it was there.
+         *  Requires: build() has not been called.
+         */
+        public boolean remove(T x) {
+            Editor<T> e = editor();
+            e.changed = false;
+            root = e.remove(root, x);
+            if (e.changed) size--;
+            return e.changed;
+        }
+
+        /**
+         * Returns: an immutable tree with the builder's contents. The
+         * builder's nodes become immutable too, since the builder can no
+         * longer be used.
+         */
+        public PersistentTree<T> build() {
+            PersistentTree<T> t = new PersistentTree<>(root, editor().cmp, size);
+            editor = null;
+            return t;
+        }
+
+        /** Returns: the editor. Checks: build() has not been called. */
+        private Editor<T> editor() {
+            if (editor == null) throw new IllegalStateException("builder already built");
+            return editor;
+        }
+    }
+
+    /**
+     * The AVL update operations. They copy every node they change, unless
+     * the node's edit token matches {@code edit}, in which case it is changed
+     * in place.
+     */
+    static class Editor<T> {
+        final Comparator<? super T> cmp;
+        /** The token of the builder performing updates, or null for persistent updates. */
+        final Object edit;
+        /** Whether the last update changed the set. */
+        boolean changed;
+
+        Editor(Comparator<? super T> cmp, Object edit) {
+            this.cmp = cmp;
+            this.edit = edit;
+        }
+
+        /** Returns: n, or a copy of n, that may be changed in place. */
+        Node<T> editable(Node<T> n) {
+            if (edit != null && n.edit == edit) return n;
+            return new Node<>(n.data, n.left, n.right, edit);
+        }
+
+        Node<T> add(Node<T> n, T x) {
+            if (n == null) {
+                changed = true;
+                return new Node<>(x, null, null, edit);
+            }
+            int c = cmp.compare(x, n.data);
+            if (c == 0) return n;
+            Node<T> child = add(c < 0 ? n.left : n.right, x);
+            if (!changed) return n;
+            n = editable(n);
+            if (c < 0) {
+                n.left = child;
+            } else {
+                n.right = child;
+            }
+            return rebalance(n);
+        }
+
+        Node<T> remove(Node<T> n, T x) {
+            if (n == null) return null;
+            int c = cmp.compare(x, n.data);
+            if (c == 0) {
+                changed = true;
+                if (n.left == null) return n.right;
+                if (n.right == null) return n.left;
+                Node<T> s = n.right;
+                while (s.left != null) s = s.left;
+                n = editable(n);
+                n.data = s.data;
+                n.right = remove(n.right, s.data);
+                return rebalance(n);
+            }
+            Node<T> child = remove(c < 0 ? n.left : n.right, x);
+            if (!changed) return n;
+            n = editable(n);
+            if (c < 0) {
+                n.left = child;
+            } else {
+                n.right = child;
+            }
+            return rebalance(n);
+        }
+
+        /** Restore the AVL invariant at n, which must be editable.
+         *  Returns: the new root of the subtree.
+         */
+        Node<T> rebalance(Node<T> n) {
+            int balance = h(n.left) - h(n.right);
+            if (balance > 1) {
+                if (h(n.left.left) < h(n.left.right)) n.left = rotateLeft(editable(n.left));
+                return rotateRight(n);
+            }
+            if (balance < -1) {
+                if (h(n.right.right) < h(n.right.left)) n.right = rotateRight(editable(n.right));
+                return rotateLeft(n);
+            }
+            update(n);
+            return n;
+        }
+
+        /** Right rotation of editable node x. Returns: the new root. */
+        Node<T> rotateRight(Node<T> x) {
+            Node<T> y = editable(x.left);
+            x.left = y.right;
+            y.right = x;
+            update(x);
+            update(y);
+            return y;
+        }
+
+        /** Left rotation of editable node x. Returns: the new root. */
+        Node<T> rotateLeft(Node<T> x) {
+            Node<T> y = editable(x.right);
+            x.right = y.left;
+            y.left = x;
+            update(x);
+            update(y);
+            return y;
+        }
+    }
+
+    static int h(Node<?> n) {
+        return n == null ? -1 : n.height;
+    }
+
+    static void update(Node<?> n) {
+        n.height = 1 + Math.max(h(n.left), h(n.right));
+    }
+}
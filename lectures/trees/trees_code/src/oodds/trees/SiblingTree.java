@@ -0,0 +1,87 @@
+package oodds.trees;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * An n-ary tree in first-child/next-sibling form: each node links to its
+ * first child and to its next sibling, so the children of a node form a
+ * linked list threaded through the child nodes themselves. Every node has
+ * the same fixed size, whatever its number of children, and no other
+ * objects are needed.
+ */
+public class SiblingTree<T> implements NaryTree<T> {
+    static class Node<T> {
+        T data;
+        Node<T> firstChild, nextSibling;
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    Node<T> root;
+    int size;
+
+    /** Creates the tree with node data {@code data} and the given parent
+     *  array, as described in {@code NaryTree}.
+     */
+    @SuppressWarnings("unchecked")
+    public SiblingTree(T[] data, int[] parent) {
+        size = data.length;
+        if (size == 0) return;
+        Node<T>[] nodes = (Node<T>[]) new Node<?>[size];
+        for (int i = 0; i < size; i++) nodes[i] = new Node<>(data[i]);
+        // Adding children in decreasing order of index, each at the front of
+        // its parent's list, leaves every list in increasing order.
+        for (int i = size - 1; i > 0; i--) {
+            Node<T> p = nodes[parent[i]];
+            nodes[i].nextSibling = p.firstChild;
+            p.firstChild = nodes[i];
+        }
+        root = nodes[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void preorder(Consumer<? super T> visit) {
+        if (root == null) return;
+        // stack[0..top-1] holds the subtrees still to visit, as the first
+        // node of each; a node stands for itself and its later siblings.
+        @SuppressWarnings("unchecked")
+        Node<T>[] stack = (Node<T>[]) new Node<?>[16];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node<T> n = stack[--top];
+            visit.accept(n.data);
+            if (top + 2 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+            if (n.nextSibling != null) stack[top++] = n.nextSibling;
+            if (n.firstChild != null) stack[top++] = n.firstChild;
+        }
+    }
+
+    @Override
+    public void postorder(Consumer<? super T> visit) {
+        if (root == null) return;
+        // stack[0..top-1] is the path from the root to the current node.
+        @SuppressWarnings("unchecked")
+        Node<T>[] stack = (Node<T>[]) new Node<?>[16];
+        int top = 0;
+        Node<T> n = root;
+        while (true) {
+            for (; n != null; n = n.firstChild) {
+                if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+                stack[top++] = n;
+            }
+            Node<T> done = stack[--top];
+            visit.accept(done.data);
+            if (top == 0) return;
+            n = done.nextSibling;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package oodds.trees;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Compares the balancing modes of {@code BinarySearchTree} on sorted,
+ * random and adversarial insertion orders, reporting the time to insert
+ * and look up every element and the resulting tree height. The "bulk"
+ * order builds the tree from sorted keys with {@code fromSorted} instead
+ * of adding them one at a time.
+ * Usage: java oodds.trees.TreeBenchmark [size]
+ */
+public class TreeBenchmark {
+    /** Returns: the integers 0..n-1 in the named order. */
+    static Integer[] keys(String order, int n) {
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        switch (order) {
+            case "random":
+                Random r = new Random(1);
+                for (int i = n - 1; i > 0; i--) {
+                    int j = r.nextInt(i + 1);
+                    Integer t = a[j]; a[j] = a[i]; a[i] = t;
+                }
+                break;
+            case "zigzag":
+                // alternately the smallest and largest remaining keys, which
+                // forces double rotations in an AVL tree
+                for (int i = 0; i < n; i++) a[i] = (i % 2 == 0) ? i / 2 : n - 1 - i / 2;
+                break;
+            default:
+                break;
+        }
+        return a;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        System.out.printf("%-11s %-7s %10s %10s %8s%n", "mode", "order", "add ms", "find ms", "height");
+        for (int round = 0; round < 2; round++) { // first round is JIT warmup
+            for (BinarySearchTree.Mode mode : BinarySearchTree.Mode.values()) {
+                for (String order : new String[] {"sorted", "random", "zigzag", "bulk"}) {
+                    Integer[] a = keys(order, n);
+                    BinarySearchTree<Integer> t = new BinarySearchTree<>(Comparator.naturalOrder(), mode);
+                    long t0 = System.nanoTime();
+                    if (order.equals("bulk")) {
+                        t = BinarySearchTree.fromSorted(Comparator.naturalOrder(), mode, false, a);
+                    } else {
+                        for (Integer x : a) t.add(x);
+                    }
+                    long t1 = System.nanoTime();
+                    for (Integer x : a) t.contains(x);
+                    long t2 = System.nanoTime();
+                    if (round > 0) {
+                        System.out.printf("%-11s %-7s %10.1f %10.1f %8d%n", mode, order,
+                                (t1 - t0) / 1e6, (t2 - t1) / 1e6, t.height());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package oodds.trees;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * An iterator over the data in a binary tree, in in-order, preorder or
+ * postorder. Rather than recursing, it keeps an explicit stack of the nodes
+ * whose traversal is unfinished, so it works on trees of any depth. The
+ * stack is an array that grows by doubling, so visiting all n nodes takes
+ * O(n) time in total and does not allocate per element.
+ */
+public class TreeIterator<T> implements Iterator<T> {
+    /** The order in which nodes are visited. */
+    public enum Order { INORDER, PREORDER, POSTORDER }
+
+    final Order order;
+    /** stack[0..top-1] holds the nodes whose traversal is unfinished. */
+    BinaryNode<T>[] stack;
+    int top;
+
+    @SuppressWarnings("unchecked")
+    TreeIterator(BinaryNode<T> root, Order order) {
+        this.order = order;
+        stack = (BinaryNode<T>[]) new BinaryNode<?>[16];
+        if (root == null) return;
+        switch (order) {
+            case INORDER: pushLeft(root); break;
+            case PREORDER: push(root); break;
+            case POSTORDER: pushLeftmostLeaf(root); break;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return top > 0;
+    }
+
+    @Override
+    public T next() {
+        if (top == 0) throw new NoSuchElementException();
+        return advance().data;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (top > 0) action.accept(advance().data);
+    }
+
+    /** Effect: pop the next node in the traversal and push its successors.
+     *  Returns: the node. Requires: the stack is nonempty.
+     */
+    private BinaryNode<T> advance() {
+        BinaryNode<T> n = stack[--top];
+        switch (order) {
+            case INORDER:
+                if (n.right != null) pushLeft(n.right);
+                break;
+            case PREORDER:
+                if (n.right != null) push(n.right);
+                if (n.left != null) push(n.left);
+                break;
+            case POSTORDER:
+                // If n was the left child of its parent, the parent's right
+                // subtree comes next.
+                if (top > 0) {
+                    BinaryNode<T> parent = stack[top - 1];
+                    if (parent.left == n && parent.right != null) pushLeftmostLeaf(parent.right);
+                }
+                break;
+        }
+        return n;
+    }
+
+    private void push(BinaryNode<T> n) {
+        if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+        stack[top++] = n;
+    }
+
+    /** Effect: push n and its chain of left descendants. */
+    private void pushLeft(BinaryNode<T> n) {
+        while (n != null) {
+            push(n);
+            n = n.left;
+        }
+    }
+
+    /** Effect: push the path from n to the first node visited by a postorder traversal of it. */
+    private void pushLeftmostLeaf(BinaryNode<T> n) {
+        while (n != null) {
+            push(n);
+            n = (n.left != null) ? n.left : n.right;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ordered set with the same add and contains operations as GenericTree,
+ * which many threads can use at once without locking. It is a skip list:
+ * a sorted linked list in which each node also appears in a random number
+ * of higher-level lists that skip over more and more nodes, so searches
+ * take O(log n) expected time without any rebalancing.
+ * <p>
+ * contains only reads the lists. add links a new node into each of its
+ * lists with a compare-and-set, retrying if another thread changed that
+ * part of the list first. Since elements are never removed, a node
+ * that a reader reaches is never unlinked.
+ */
+public class ConcurrentOrderedSet<V> {
+	static final int MAX_LEVEL = 32;
+
+	class Node {
+		final V value;
+		/** next.get(i) is the next node in the level-i list. */
+		final AtomicReferenceArray<Node> next;
+
+		Node(V value, int height) {
+			this.value = value;
+			next = new AtomicReferenceArray<>(height);
+		}
+	}
+
+	/** The sentinel at the start of every list. Its value is never compared. */
+	private final Node head = new Node(null, MAX_LEVEL);
+	/** The ordering on values, or null to use their natural order. */
+	private final Comparator<? super V> comparator;
+	private final LongAdder size = new LongAdder();
+
+	/** Creates a set ordered by c. Requires: c is not null; use
+	 *  naturalOrder() for a set of Comparable values.
+	 */
+	public ConcurrentOrderedSet(Comparator<? super V> c) {
+		this.comparator = Objects.requireNonNull(c, "comparator");
+	}
+
+	/** Creates a set that uses its values' natural order. */
+	private ConcurrentOrderedSet() {
+		this.comparator = null;
+	}
+
+	/** Creates a set that uses the natural order of its values. */
+	public static <K extends Comparable<? super K>> ConcurrentOrderedSet<K> naturalOrder() {
+		return new ConcurrentOrderedSet<K>();
+	}
+
+	public boolean contains(V v) {
+		Node x = head;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			Node n = x.next.get(level);
+			while (n != null) {
+				int c = compare(n.value, v);
+				if (c == 0) {
+					return true;
+				} else if (c > 0) {
+					break;
+				}
+				x = n;
+				n = x.next.get(level);
+			}
+		}
+		return false;
+	}
+
+	/** Add v to the set. Returns whether it was not already there. */
+	public boolean add(V v) {
+		int height = randomHeight();
+		Node node = new Node(v, height);
+		@SuppressWarnings("unchecked")
+		Node[] preds = (Node[]) new ConcurrentOrderedSet<?>.Node[MAX_LEVEL];
+		@SuppressWarnings("unchecked")
+		Node[] succs = (Node[]) new ConcurrentOrderedSet<?>.Node[MAX_LEVEL];
+		while (true) {
+			if (find(v, preds, succs)) {
+				return false;
+			}
+			node.next.set(0, succs[0]);
+			if (preds[0].next.compareAndSet(0, succs[0], node)) {
+				break;
+			}
+		}
+		size.increment();
+		// The node is now in the set; link it into the higher lists.
+		for (int level = 1; level < height; level++) {
+			while (true) {
+				node.next.set(level, succs[level]);
+				if (preds[level].next.compareAndSet(level, succs[level], node)) {
+					break;
+				}
+				find(v, preds, succs);
+			}
+		}
+		return true;
+	}
+
+	/** The number of elements. Accurate only when no add is in progress. */
+	public int size() {
+		return size.intValue();
+	}
+
+	/**
+	 * Fill in, for every level, preds[level] with the last node before v
+	 * and succs[level] with the node after it, which is the first node not
+	 * before v, or null. At a level where a node containing v is already
+	 * linked, succs[level] is that node itself.
+	 * Returns whether a node containing v was found at some level, which
+	 * means it is in the level-0 list.
+	 */
+	private boolean find(V v, Node[] preds, Node[] succs) {
+		boolean found = false;
+		Node x = head;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			Node n = x.next.get(level);
+			while (n != null) {
+				int c = compare(n.value, v);
+				if (c >= 0) {
+					if (c == 0) {
+						found = true;
+					}
+					break;
+				}
+				x = n;
+				n = x.next.get(level);
+			}
+			preds[level] = x;
+			succs[level] = n;
+		}
+		return found;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(V a, V b) {
+		if (comparator == null) {
+			return ((Comparable<? super V>) a).compareTo(b);
+		}
+		return comparator.compare(a, b);
+	}
+
+	/** A height for a new node, which is h with probability 2^-h. */
+	private static int randomHeight() {
+		int r = ThreadLocalRandom.current().nextInt();
+		return Math.min(Integer.numberOfTrailingZeros(r) + 1, MAX_LEVEL);
+	}
+}
@@ -0,0 +1,88 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares a GenericTree shared under a global lock with a
+ * ConcurrentOrderedSet, on a read-heavy workload (95% contains, 5% add)
+ * and a write-heavy one (50% of each), for 1 to N threads.
+ * Usage: java ConcurrentTreeBenchmark [max threads] [ops per thread]
+ */
+public class ConcurrentTreeBenchmark {
+	interface IntSet {
+		void add(Integer v);
+		boolean contains(Integer v);
+	}
+
+	static final int KEY_RANGE = 1_000_000;
+
+	/** Returns the throughput of s in operations per millisecond. */
+	static double run(IntSet s, int threads, int ops, int writePercent) throws InterruptedException {
+		for (int i = 0; i < KEY_RANGE / 2; i++) {
+			s.add(ThreadLocalRandom.current().nextInt(KEY_RANGE));
+		}
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			workers[t] = new Thread(() -> {
+				ThreadLocalRandom r = ThreadLocalRandom.current();
+				for (int i = 0; i < ops; i++) {
+					Integer k = r.nextInt(KEY_RANGE);
+					if (r.nextInt(100) < writePercent) {
+						s.add(k);
+					} else {
+						s.contains(k);
+					}
+				}
+			});
+		}
+		long t0 = System.nanoTime();
+		for (Thread w : workers) {
+			w.start();
+		}
+		for (Thread w : workers) {
+			w.join();
+		}
+		return (double) threads * ops / ((System.nanoTime() - t0) / 1e6);
+	}
+
+	static IntSet locked() {
+		GenericTree<Integer> tree = GenericTree.naturalOrder();
+		return new IntSet() {
+			public synchronized void add(Integer v) {
+				tree.add(v);
+			}
+
+			public synchronized boolean contains(Integer v) {
+				return tree.contains(v);
+			}
+		};
+	}
+
+	static IntSet concurrent() {
+		ConcurrentOrderedSet<Integer> set = ConcurrentOrderedSet.naturalOrder();
+		return new IntSet() {
+			public void add(Integer v) {
+				set.add(v);
+			}
+
+			public boolean contains(Integer v) {
+				return set.contains(v);
+			}
+		};
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		int ops = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+		System.out.printf("%-8s %-7s %14s %14s%n", "threads", "writes", "locked ops/ms", "skiplist ops/ms");
+		for (int round = 0; round < 2; round++) { // first round is JIT warmup
+			for (int writes : new int[] {5, 50}) {
+				for (int threads = 1; threads <= maxThreads; threads *= 2) {
+					double l = run(locked(), threads, ops, writes);
+					double c = run(concurrent(), threads, ops, writes);
+					if (round > 0) {
+						System.out.printf("%-8d %-7s %14.0f %14.0f%n", threads, writes + "%", l, c);
+					}
+				}
+			}
+		}
+	}
+}
@@ -1,69 +1,95 @@
 import java.util.Comparator;
+import java.util.Objects;
 
+/**
+ * A binary search tree of values of type V, ordered either by a comparator
+ * or, for Comparable values, by their natural order. The ordering lives
+ * only in the tree, not in every node. add and contains share one
+ * iterative descent, which compares once per level.
+ */
 public class GenericTree<V> {
-	class Node<W>{
-		W value;
-		Node<W> left;
-		Node<W> right;
-		Comparator<W> c;
-		
-		Node(W value, Comparator<W> c){
+	static class Node<V> {
+		V value;
+		Node<V> left;
+		Node<V> right;
+
+		Node(V value) {
 			this.value = value;
-			this.c = c;
-		}
-		
-		boolean contains(W v) {
-			 if(c.compare(value, v) == 0) {
-				 return true;
-			 }
-			 else if (c.compare(value, v) < 0) {
-				 return left != null && left.contains(v);
-			 }
-			 else {
-				 return right != null && right.contains(v);
-			 }
 		}
-		
-		public void add(W v) {
-			if(c.compare(value, v) == 0) {
-				return;
-			}
-			else if (c.compare(value, v) < 0 && left != null) {
-				left.add(v);
-			}
-			else if(c.compare(value, v) < 0) {
-				left = new Node<W>(v,c);
-			}
-			else if(c.compare(value, v) > 0 && right != null) {
-				right.add(v);
-			}
-			else {
-				right = new Node<W>(v,c);
-			}
-		}
-		
-		
-		
-		
 	}
+
+	/** Where a descent for a value stopped. */
+	static class Stop<V> {
+		/** The last node compared, or null if the tree is empty. */
+		Node<V> node;
+		/** The result of comparing the value with node.value. */
+		int cmp;
+	}
+
 	private Node<V> head;
-	private Comparator<V> comparator;
-	
-	public GenericTree(Comparator<V> c){
-		this.comparator = c;
+	/** The ordering on values, or null to use their natural order. */
+	private final Comparator<? super V> comparator;
+
+	/** Creates a tree ordered by c. Requires: c is not null; use
+	 *  naturalOrder() for a tree of Comparable values.
+	 */
+	public GenericTree(Comparator<? super V> c) {
+		this.comparator = Objects.requireNonNull(c, "comparator");
 	}
-	
+
+	/** Creates a tree that uses its values' natural order. */
+	private GenericTree() {
+		this.comparator = null;
+	}
+
+	/** Creates a tree that uses the natural order of its values. Comparing
+	 *  values calls compareTo directly rather than going through a Comparator.
+	 */
+	public static <K extends Comparable<? super K>> GenericTree<K> naturalOrder() {
+		return new GenericTree<K>();
+	}
+
 	public boolean contains(V v) {
-		return head != null && head.contains(v);
+		Stop<V> s = descend(v);
+		return s.node != null && s.cmp == 0;
 	}
-	
+
 	public void add(V v) {
-		if(head == null) {
-			head = new Node<V>(v,comparator);
-			return;
+		Stop<V> s = descend(v);
+		if (s.node == null) {
+			head = new Node<>(v);
+		} else if (s.cmp < 0) {
+			s.node.left = new Node<>(v);
+		} else if (s.cmp > 0) {
+			s.node.right = new Node<>(v);
+		}
+	}
+
+	/**
+	 * Returns: where the descent for v stopped: at the node holding a value
+	 * equal to v if there is one, and otherwise at the node below which v
+	 * belongs, which has no child on that side. The result holds the last
+	 * comparison, so callers need not compare again.
+	 */
+	private Stop<V> descend(V v) {
+		Stop<V> s = new Stop<>();
+		Node<V> n = head;
+		while (n != null) {
+			s.node = n;
+			s.cmp = compare(v, n.value);
+			if (s.cmp == 0) {
+				break;
+			}
+			n = (s.cmp < 0) ? n.left : n.right;
+		}
+		return s;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(V a, V b) {
+		if (comparator == null) {
+			return ((Comparable<? super V>) a).compareTo(b);
 		}
-		head.add(v);
+		return comparator.compare(a, b);
 	}
-	
-	
 }
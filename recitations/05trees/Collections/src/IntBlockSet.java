@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * An ordered set of ints with the same operations as IntTree, but stored
+ * compactly: the elements are kept in sorted order in a sequence of blocks,
+ * each an int[] holding up to BLOCK_SIZE elements. Rather than one object
+ * per element, there is one array per block, so the set uses little more
+ * than four bytes per element, and scanning it touches memory sequentially.
+ */
+public class IntBlockSet {
+	static final int BLOCK_SIZE = 256;
+
+	/** blocks[0..numBlocks-1] hold the elements in increasing order.
+	 *  Block i holds counts[i] elements, and every block is nonempty.
+	 */
+	private int[][] blocks = new int[4][];
+	private int[] counts = new int[4];
+	private int numBlocks;
+	private int size;
+
+	public void add(int v) {
+		if (numBlocks == 0) {
+			blocks[0] = new int[BLOCK_SIZE];
+			blocks[0][0] = v;
+			counts[0] = 1;
+			numBlocks = 1;
+			size = 1;
+			return;
+		}
+		int b = findBlock(v);
+		int[] block = blocks[b];
+		int i = Arrays.binarySearch(block, 0, counts[b], v);
+		if (i >= 0) {
+			return;
+		}
+		i = -(i + 1);
+		if (counts[b] == BLOCK_SIZE) {
+			split(b);
+			if (i > BLOCK_SIZE / 2) {
+				b++;
+				i -= BLOCK_SIZE / 2;
+			}
+			block = blocks[b];
+		}
+		System.arraycopy(block, i, block, i + 1, counts[b] - i);
+		block[i] = v;
+		counts[b]++;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int v) {
+		if (numBlocks == 0) {
+			return false;
+		}
+		int b = findBlock(v);
+		return Arrays.binarySearch(blocks[b], 0, counts[b], v) >= 0;
+	}
+
+	/** The index of the block where v is or would be: the last block whose
+	 *  first element is at most v, or block 0 if there is none.
+	 */
+	private int findBlock(int v) {
+		int lo = 0, hi = numBlocks - 1;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (blocks[mid][0] <= v) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	/** Split full block b into two half-full blocks b and b+1. */
+	private void split(int b) {
+		if (numBlocks == blocks.length) {
+			blocks = Arrays.copyOf(blocks, 2 * numBlocks);
+			counts = Arrays.copyOf(counts, 2 * numBlocks);
+		}
+		System.arraycopy(blocks, b + 1, blocks, b + 2, numBlocks - b - 1);
+		System.arraycopy(counts, b + 1, counts, b + 2, numBlocks - b - 1);
+		int half = BLOCK_SIZE / 2;
+		int[] upper = new int[BLOCK_SIZE];
+		System.arraycopy(blocks[b], half, upper, 0, BLOCK_SIZE - half);
+		blocks[b + 1] = upper;
+		counts[b + 1] = BLOCK_SIZE - half;
+		counts[b] = half;
+		numBlocks++;
+	}
+}
@@ -0,0 +1,56 @@
+import java.util.Random;
+
+/**
+ * Compares the memory used per element, and the time to add and look up
+ * elements, for IntTree and IntBlockSet.
+ * Usage: java IntSetMemoryBenchmark [size]
+ */
+public class IntSetMemoryBenchmark {
+	static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int[] values = new int[n];
+		Random r = new Random(1);
+		for (int i = 0; i < n; i++) {
+			values[i] = r.nextInt();
+		}
+
+		long before = usedMemory();
+		long t0 = System.nanoTime();
+		IntTree tree = new IntTree();
+		for (int v : values) {
+			tree.add(v);
+		}
+		long t1 = System.nanoTime();
+		for (int v : values) {
+			tree.contains(v);
+		}
+		long t2 = System.nanoTime();
+		long treeBytes = usedMemory() - before;
+		System.out.printf("IntTree:     %5.1f bytes/element, add %6.0f ms, contains %6.0f ms%n",
+				(double) treeBytes / tree.size(), (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+		tree = null;
+
+		before = usedMemory();
+		t0 = System.nanoTime();
+		IntBlockSet set = new IntBlockSet();
+		for (int v : values) {
+			set.add(v);
+		}
+		t1 = System.nanoTime();
+		for (int v : values) {
+			set.contains(v);
+		}
+		t2 = System.nanoTime();
+		long setBytes = usedMemory() - before;
+		System.out.printf("IntBlockSet: %5.1f bytes/element, add %6.0f ms, contains %6.0f ms%n",
+				(double) setBytes / set.size(), (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+	}
+}
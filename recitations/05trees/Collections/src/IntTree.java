@@ -1,3 +1,6 @@
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 public class IntTree {
 	class IntTreeNode {
@@ -21,52 +24,154 @@ public class IntTree {
 			}
 		}
 
-		void add(int v) {
+		boolean add(int v) {
 			if (v == value) {
-				return;
+				return false;
 			} else if (v < value && left != null) {
-				left.add(v);
+				return left.add(v);
 			} else if (v < value) {
 				left = new IntTreeNode(v);
 			} else if (v > value && right != null) {
-				right.add(v);
+				return right.add(v);
 			} else {
 				right = new IntTreeNode(v);
 			}
+			return true;
 		}
 
-		int size() {
-			int size = 1;
-			if (left != null) {
-				size += left.size();
-			}
-			if (right != null) {
-				size += right.size();
+		/** Remove v from the subtree rooted at this node, if it is there.
+		 *  Returns the new root of the subtree.
+		 */
+		IntTreeNode remove(int v) {
+			if (v < value) {
+				if (left != null) {
+					left = left.remove(v);
+				}
+			} else if (v > value) {
+				if (right != null) {
+					right = right.remove(v);
+				}
+			} else {
+				removed = true;
+				if (left == null) {
+					return right;
+				} else if (right == null) {
+					return left;
+				}
+				IntTreeNode successor = right;
+				while (successor.left != null) {
+					successor = successor.left;
+				}
+				value = successor.value;
+				right = right.remove(value);
 			}
-			return size;
+			return this;
 		}
 
 	}
 
 	private IntTreeNode head;
+	private int size;
+	/** Set by IntTreeNode.remove when it finds the value to remove. */
+	private boolean removed;
 
-	public void add(int v) {
+	/** Add v to the tree. Returns whether it was not already there. */
+	public boolean add(int v) {
+		boolean added;
 		if (head == null) {
 			head = new IntTreeNode(v);
+			added = true;
 		} else {
-			head.add(v);
+			added = head.add(v);
 		}
+		if (added) {
+			size++;
+		}
+		return added;
 	}
 
-	public int size() {
-		if (head == null) {
-			return 0;
+	/** Remove v from the tree. Returns whether it was there. */
+	public boolean remove(int v) {
+		removed = false;
+		if (head != null) {
+			head = head.remove(v);
+		}
+		if (removed) {
+			size--;
 		}
-		return head.size();
+		return removed;
+	}
+
+	public int size() {
+		return size;
 	}
 
 	public boolean contains(int v) {
 		return head != null && head.contains(v);
 	}
 
+	/** Replace the contents of the tree with a[0..n-1], building a balanced
+	 *  tree in O(n) time. Requires: a[0..n-1] is strictly increasing.
+	 */
+	public void buildFromSorted(int[] a, int n) {
+		head = build(a, 0, n);
+		size = n;
+	}
+
+	/** Build a balanced tree containing a[lo..hi-1]. */
+	private IntTreeNode build(int[] a, int lo, int hi) {
+		if (lo >= hi) {
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		IntTreeNode n = new IntTreeNode(a[mid]);
+		n.left = build(a, lo, mid);
+		n.right = build(a, mid + 1, hi);
+		return n;
+	}
+
+	/** Returns the elements of the tree in increasing order. */
+	public int[] toSortedArray() {
+		int[] result = new int[size];
+		PrimitiveIterator.OfInt it = iterator();
+		for (int i = 0; i < size; i++) {
+			result[i] = it.nextInt();
+		}
+		return result;
+	}
+
+	/** Returns an iterator over the elements in increasing order, which
+	 *  produces them as ints without boxing.
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			ArrayDeque<IntTreeNode> stack = new ArrayDeque<>();
+			{
+				pushLeft(head);
+			}
+
+			void pushLeft(IntTreeNode n) {
+				while (n != null) {
+					stack.push(n);
+					n = n.left;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public int nextInt() {
+				if (stack.isEmpty()) {
+					throw new NoSuchElementException();
+				}
+				IntTreeNode n = stack.pop();
+				pushLeft(n.right);
+				return n.value;
+			}
+		};
+	}
+
 }
@@ -1,84 +1,222 @@
+import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.SortedSet;
 
-public class IntTreeCollection  implements Collection{
-	private IntTree tree;
+/**
+ * A collection of distinct Integers, stored in an IntTree. Bulk operations
+ * work on sorted sequences: the elements of the argument are put in sorted
+ * order, merged with the elements of the tree, and if the tree changes, a
+ * balanced tree is rebuilt from the result in linear time.
+ */
+public class IntTreeCollection implements Collection<Integer> {
+	private IntTree tree = new IntTree();
+
+	public IntTreeCollection() {
+	}
+
+	/** Creates a collection containing the Integers in c. */
+	public IntTreeCollection(Collection<? extends Integer> c) {
+		addAll(c);
+	}
 
 	@Override
 	public int size() {
-		// TODO Auto-generated method stub
 		return tree.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		// TODO Auto-generated method stub
 		return tree.size() == 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		
-		return false;
+		return o instanceof Integer && tree.contains((Integer) o);
 	}
 
 	@Override
-	public Iterator iterator() {
-		// TODO Auto-generated method stub
-		return null;
+	public Iterator<Integer> iterator() {
+		return tree.iterator();
+	}
+
+	/** Returns an iterator over the elements in increasing order, without boxing. */
+	public PrimitiveIterator.OfInt intIterator() {
+		return tree.iterator();
 	}
 
 	@Override
 	public Object[] toArray() {
-		// TODO Auto-generated method stub
-		return null;
+		Object[] result = new Object[size()];
+		int i = 0;
+		for (PrimitiveIterator.OfInt it = tree.iterator(); it.hasNext();) {
+			result[i++] = it.nextInt();
+		}
+		return result;
 	}
 
 	@Override
-	public Object[] toArray(Object[] a) {
-		// TODO Auto-generated method stub
-		return null;
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		int n = size();
+		if (a.length < n) {
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), n);
+		}
+		int i = 0;
+		for (PrimitiveIterator.OfInt it = tree.iterator(); it.hasNext();) {
+			a[i++] = (T) Integer.valueOf(it.nextInt());
+		}
+		if (a.length > n) {
+			a[n] = null;
+		}
+		return a;
 	}
 
 	@Override
-	public boolean add(Object e) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean add(Integer e) {
+		return tree.add(e);
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		// TODO Auto-generated method stub
-		return false;
+		return o instanceof Integer && tree.remove((Integer) o);
 	}
 
 	@Override
-	public boolean containsAll(Collection c) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c) {
+			if (!(o instanceof Integer)) {
+				return false;
+			}
+		}
+		if (isSmall(c)) {
+			for (Object o : c) {
+				if (!tree.contains((Integer) o)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		int[] other = sortedValues(c);
+		PrimitiveIterator.OfInt it = tree.iterator();
+		int i = 0;
+		while (i < other.length && it.hasNext()) {
+			int v = it.nextInt();
+			if (v == other[i]) {
+				i++;
+			} else if (v > other[i]) {
+				return false;
+			}
+		}
+		return i == other.length;
 	}
 
 	@Override
-	public boolean addAll(Collection c) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean addAll(Collection<? extends Integer> c) {
+		if (isSmall(c)) {
+			boolean changed = false;
+			for (Integer e : c) {
+				changed |= tree.add(e);
+			}
+			return changed;
+		}
+		int[] mine = tree.toSortedArray();
+		int[] other = sortedValues(c);
+		int[] result = new int[mine.length + other.length];
+		int i = 0, j = 0, n = 0;
+		while (i < mine.length || j < other.length) {
+			if (j == other.length || i < mine.length && mine[i] < other[j]) {
+				result[n++] = mine[i++];
+			} else if (i == mine.length || other[j] < mine[i]) {
+				result[n++] = other[j++];
+			} else {
+				result[n++] = mine[i++];
+				j++;
+			}
+		}
+		return rebuild(result, n);
 	}
 
 	@Override
-	public boolean removeAll(Collection c) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean removeAll(Collection<?> c) {
+		return filter(c, false);
 	}
 
 	@Override
-	public boolean retainAll(Collection c) {
-		// TODO Auto-generated method stub
-		return false;
+	public boolean retainAll(Collection<?> c) {
+		return filter(c, true);
 	}
 
 	@Override
 	public void clear() {
-		// TODO Auto-generated method stub
-		
+		tree = new IntTree();
+	}
+
+	/**
+	 * Keep the elements of the tree that are in c if {@code keep} is true,
+	 * or those that are not in c if it is false. Returns whether the
+	 * collection changed.
+	 */
+	private boolean filter(Collection<?> c, boolean keep) {
+		int[] mine = tree.toSortedArray();
+		int[] other = sortedValues(c);
+		int j = 0, n = 0;
+		for (int v : mine) {
+			while (j < other.length && other[j] < v) {
+				j++;
+			}
+			boolean inOther = j < other.length && other[j] == v;
+			if (inOther == keep) {
+				mine[n++] = v;
+			}
+		}
+		return rebuild(mine, n);
+	}
+
+	/** Replace the tree with one built from a[0..n-1], if that changes its
+	 *  size. Returns whether it did.
+	 */
+	private boolean rebuild(int[] a, int n) {
+		if (n == tree.size()) {
+			return false;
+		}
+		tree.buildFromSorted(a, n);
+		return true;
+	}
+
+	/** Whether c is small enough compared to this collection that operating
+	 *  on its elements one at a time is cheaper than merging.
+	 */
+	private boolean isSmall(Collection<?> c) {
+		return (long) c.size() * 16 < tree.size();
+	}
+
+	/** Returns the distinct Integers in c in increasing order. Other objects
+	 *  in c are ignored. Takes linear time if c is already sorted.
+	 */
+	private static int[] sortedValues(Collection<?> c) {
+		if (c instanceof IntTreeCollection) {
+			return ((IntTreeCollection) c).tree.toSortedArray();
+		}
+		int[] a = new int[c.size()];
+		int n = 0;
+		for (Object o : c) {
+			if (o instanceof Integer) {
+				a[n++] = (Integer) o;
+			}
+		}
+		boolean sorted = c instanceof SortedSet && ((SortedSet<?>) c).comparator() == null;
+		if (!sorted) {
+			Arrays.sort(a, 0, n);
+		}
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			if (m == 0 || a[i] != a[m - 1]) {
+				a[m++] = a[i];
+			}
+		}
+		return m == a.length ? a : Arrays.copyOf(a, m);
 	}
 }